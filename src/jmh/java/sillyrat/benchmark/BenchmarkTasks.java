@@ -0,0 +1,57 @@
+package sillyrat.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import sillyrat.storage.CommitPolicy;
+import sillyrat.storage.DatasetGenerator;
+import sillyrat.storage.Storage;
+import sillyrat.storage.StorageFormat;
+import sillyrat.task.Task;
+import sillyrat.task.TaskList;
+
+/**
+ * Builds reproducible task lists for the benchmarks with {@link DatasetGenerator} at its default settings.
+ */
+final class BenchmarkTasks {
+    private static final long SEED = 42;
+
+    private BenchmarkTasks() {
+    }
+
+    /**
+     * Returns the given number of generated tasks. The same count always gives the same tasks,
+     * apart from times, which are relative to today.
+     *
+     * @param count The number of tasks.
+     * @return The tasks, in list order.
+     */
+    static List<Task> generate(int count) {
+        DatasetGenerator generator = new DatasetGenerator(SEED);
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(generator.next());
+        }
+        return tasks;
+    }
+
+    /**
+     * Writes a data file holding the given number of generated tasks.
+     *
+     * @param file The file to write.
+     * @param count The number of tasks.
+     * @param format The format to write the file in.
+     * @throws IOException If the file cannot be written.
+     */
+    static void writeDataFile(Path file, int count, StorageFormat format) throws IOException {
+        if (format == StorageFormat.TEXT) {
+            new DatasetGenerator(SEED).write(file, count);
+            return;
+        }
+        Storage storage = new Storage(file.toString(), format, Storage.DEFAULT_COMPACT_THRESHOLD, CommitPolicy.SYNC);
+        storage.save(new TaskList(generate(count)));
+        storage.close();
+    }
+}
@@ -0,0 +1,64 @@
+package sillyrat.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import sillyrat.common.DateTimeUtil;
+import sillyrat.common.SillyRatException;
+import sillyrat.parser.CommandScanner;
+import sillyrat.parser.ParsedCommand;
+
+/**
+ * Measures parsing of typical commands and of user date/times, neither of which depends on the list size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParserBenchmark {
+    private static final String DEADLINE = "deadline submit report /by 2099-05-05 1600";
+    private static final String EVENT = "event team sync /from 2099-05-05 1400 /to 2099-05-05 1600";
+
+    private final CommandScanner scanner = new CommandScanner();
+
+    @Benchmark
+    public ParsedCommand parseList() throws SillyRatException {
+        return scanner.parse("list");
+    }
+
+    @Benchmark
+    public ParsedCommand parseDeadline() throws SillyRatException {
+        return scanner.parse(DEADLINE);
+    }
+
+    @Benchmark
+    public ParsedCommand parseEvent() throws SillyRatException {
+        return scanner.parse(EVENT);
+    }
+
+    @Benchmark
+    public ParsedCommand parseMarkById() throws SillyRatException {
+        return scanner.parse("mark #12345");
+    }
+
+    @Benchmark
+    public LocalDateTime parseIsoDate() {
+        return DateTimeUtil.parseUserDateTime("2099-05-05");
+    }
+
+    @Benchmark
+    public LocalDateTime parseIsoDateTime() {
+        return DateTimeUtil.parseUserDateTime("2099-05-05 1600");
+    }
+
+    @Benchmark
+    public LocalDateTime parseSlashDateTime() {
+        return DateTimeUtil.parseUserDateTime("5/5/2099 1600");
+    }
+}
@@ -0,0 +1,142 @@
+package sillyrat.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import sillyrat.SillyRat;
+import sillyrat.server.TaskServer;
+import sillyrat.storage.StorageFormat;
+
+/**
+ * Load test for {@link TaskServer}: measures requests per second from several client threads over loopback,
+ * each keeping its connection open. The mixed group runs one thread sending commands that change the list
+ * alongside threads reading it, to show how much reads slow down behind writes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ServerBenchmark {
+    private static final int CLIENT_THREADS = 8;
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private Path dir;
+    private SillyRat sillyRat;
+    private TaskServer server;
+    private HttpClient client;
+    private HttpRequest listPage;
+    private HttpRequest find;
+    private HttpRequest add;
+    private HttpRequest deleteLast;
+
+    /**
+     * Writes a data file of the benchmark size and starts a server on it.
+     *
+     * @throws IOException If the file cannot be written or the server cannot start.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("sillyrat-bench");
+        Path file = dir.resolve("silly-rat.txt");
+        BenchmarkTasks.writeDataFile(file, size, StorageFormat.TEXT);
+        sillyRat = new SillyRat(file.toString());
+        server = new TaskServer(sillyRat, 0);
+        server.start();
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        String base = "http://127.0.0.1:" + server.getPort();
+        listPage = HttpRequest.newBuilder(URI.create(base + "/tasks?offset=0&limit=50")).GET().build();
+        find = HttpRequest.newBuilder(URI.create(base + "/find?q=read%20book&limit=50")).GET().build();
+        add = HttpRequest.newBuilder(URI.create(base + "/command"))
+                .POST(HttpRequest.BodyPublishers.ofString("todo benchmark task")).build();
+        deleteLast = HttpRequest.newBuilder(URI.create(base + "/command"))
+                .POST(HttpRequest.BodyPublishers.ofString("delete " + (size + 1))).build();
+    }
+
+    /**
+     * Stops the server, closes SillyRat and deletes the data file and its journal.
+     *
+     * @throws IOException If the files cannot be deleted.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        server.close();
+        sillyRat.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(CLIENT_THREADS)
+    public String listPage() throws IOException, InterruptedException {
+        return send(listPage);
+    }
+
+    @Benchmark
+    @Threads(CLIENT_THREADS)
+    public String find() throws IOException, InterruptedException {
+        return send(find);
+    }
+
+    /**
+     * Reads a page of the list while {@link #mixedWrite()} changes it.
+     *
+     * @return The response body.
+     * @throws IOException If the request fails.
+     * @throws InterruptedException If interrupted while waiting for the response.
+     */
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(CLIENT_THREADS - 1)
+    public String mixedRead() throws IOException, InterruptedException {
+        return send(listPage);
+    }
+
+    /**
+     * Adds a todo and deletes it again, so the list keeps its size across invocations.
+     *
+     * @return The response body of the delete.
+     * @throws IOException If a request fails.
+     * @throws InterruptedException If interrupted while waiting for a response.
+     */
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public String mixedWrite() throws IOException, InterruptedException {
+        send(add);
+        return send(deleteLast);
+    }
+
+    private String send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("Unexpected status " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,104 @@
+package sillyrat.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import sillyrat.SillyRat;
+import sillyrat.storage.StorageFormat;
+
+/**
+ * Measures whole commands through {@link SillyRat#getResponse(String)}: parsing, execution, journaling
+ * and formatting the reply. Changes are group-committed, as in the app.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SillyRatBenchmark {
+    @Param({"100", "1000", "10000", "100000", "1000000"})
+    private int size;
+
+    private Path dir;
+    private SillyRat sillyRat;
+    private String deleteLast;
+
+    /**
+     * Writes a data file of the benchmark size and starts SillyRat on it.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("sillyrat-bench");
+        Path file = dir.resolve("silly-rat.txt");
+        BenchmarkTasks.writeDataFile(file, size, StorageFormat.TEXT);
+        sillyRat = new SillyRat(file.toString());
+        deleteLast = "delete " + (size + 1);
+    }
+
+    /**
+     * Flushes pending changes, stops the journal writer and deletes the data file and its journal.
+     *
+     * @throws IOException If the files cannot be deleted.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        sillyRat.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public String list() {
+        return sillyRat.getResponse("list");
+    }
+
+    @Benchmark
+    public String find() {
+        return sillyRat.getResponse("find read book");
+    }
+
+    @Benchmark
+    public String remind() {
+        return sillyRat.getResponse("remind");
+    }
+
+    /**
+     * Adds a todo and deletes it again, so the list keeps its size across invocations.
+     *
+     * @param blackhole Consumes the replies.
+     */
+    @Benchmark
+    public void addThenDelete(Blackhole blackhole) {
+        blackhole.consume(sillyRat.getResponse("todo benchmark task"));
+        blackhole.consume(sillyRat.getResponse(deleteLast));
+    }
+
+    /**
+     * Marks the first task done and then not done, so its state is unchanged across invocations.
+     *
+     * @param blackhole Consumes the replies.
+     */
+    @Benchmark
+    public void markThenUnmark(Blackhole blackhole) {
+        blackhole.consume(sillyRat.getResponse("mark 1"));
+        blackhole.consume(sillyRat.getResponse("unmark 1"));
+    }
+}
@@ -0,0 +1,80 @@
+package sillyrat.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import sillyrat.storage.CommitPolicy;
+import sillyrat.storage.Storage;
+import sillyrat.storage.StorageFormat;
+import sillyrat.task.TaskList;
+
+/**
+ * Measures loading and saving a whole data file in each storage format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StorageBenchmark {
+    @Param({"100", "1000", "10000", "100000", "1000000"})
+    private int size;
+
+    @Param({"TEXT", "BINARY"})
+    private StorageFormat format;
+
+    private Path dir;
+    private Storage storage;
+    private TaskList tasks;
+
+    /**
+     * Writes the data file that the benchmarks load and overwrite.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("sillyrat-bench");
+        Path file = dir.resolve("silly-rat.txt");
+        BenchmarkTasks.writeDataFile(file, size, format);
+        storage = new Storage(file.toString(), format, Storage.DEFAULT_COMPACT_THRESHOLD, CommitPolicy.SYNC);
+        tasks = storage.load();
+    }
+
+    /**
+     * Deletes the data file and its journal.
+     *
+     * @throws IOException If the files cannot be deleted.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        storage.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public TaskList load() throws IOException {
+        return storage.load();
+    }
+
+    @Benchmark
+    public void save() throws IOException {
+        storage.save(tasks);
+    }
+}
@@ -0,0 +1,65 @@
+package sillyrat.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import sillyrat.task.Task;
+import sillyrat.task.TaskList;
+import sillyrat.task.TaskPage;
+
+/**
+ * Measures task list queries over lists of different sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskListBenchmark {
+    @Param({"100", "1000", "10000", "100000", "1000000"})
+    private int size;
+
+    private TaskList tasks;
+
+    @Setup
+    public void setUp() {
+        tasks = new TaskList(BenchmarkTasks.generate(size));
+    }
+
+    @Benchmark
+    public List<Task> findOneWord() {
+        return tasks.find("book");
+    }
+
+    @Benchmark
+    public List<Task> findTwoWords() {
+        return tasks.find("read book");
+    }
+
+    @Benchmark
+    public List<Task> findOrNot() {
+        return tasks.find("book OR cheese -library");
+    }
+
+    @Benchmark
+    public TaskPage findFirstPage() {
+        return tasks.find("book", 0, 50);
+    }
+
+    @Benchmark
+    public List<Task> getUpcoming() {
+        return tasks.getUpcoming(7);
+    }
+
+    @Benchmark
+    public TaskPage listMiddlePage() {
+        return tasks.page(size / 2, 50);
+    }
+}
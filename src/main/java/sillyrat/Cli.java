@@ -0,0 +1,178 @@
+package sillyrat;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A text interface for SillyRat that reads commands from standard input and writes replies to standard output.
+ * It never loads JavaFX, so it starts quickly and suits scripted use: {@code java sillyrat.Cli < commands.txt}.
+ * Input and output are UTF-8. A prompt is shown only when the input is an interactive terminal.
+ * In batch mode, changes are saved once at the end of the script, or at checkpoints every so many commands,
+ * and output is written out only then; the output itself is the same as without batch mode.
+ * Usage: {@code Cli [--batch] [--checkpoint N] [--script FILE] [data-file]}.
+ */
+public class Cli {
+    private static final String PROMPT = "> ";
+    private static final String USAGE = "Usage: Cli [--batch] [--checkpoint N] [--script FILE] [data-file]";
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    private final SillyRat sillyRat;
+    private final BufferedReader in;
+    private final PrintWriter out;
+    private final boolean isInteractive;
+    private boolean isBatch;
+    /** Number of commands between checkpoints in batch mode, or 0 to save only at the end. */
+    private int checkpointInterval;
+
+    /**
+     * Constructs a text interface over the given streams.
+     *
+     * @param sillyRat The SillyRat instance that answers commands.
+     * @param in The reader commands are read from, one per line.
+     * @param out The writer replies are written to.
+     * @param isInteractive True to show a prompt before each command.
+     */
+    public Cli(SillyRat sillyRat, BufferedReader in, PrintWriter out, boolean isInteractive) {
+        this.sillyRat = sillyRat;
+        this.in = in;
+        this.out = out;
+        this.isInteractive = isInteractive;
+    }
+
+    /**
+     * Runs the text interface on standard input and output, or on a script file with {@code --script}.
+     *
+     * @param args Any options, followed by an optional path to the data file, which defaults to the one
+     *     the GUI uses.
+     */
+    public static void main(String[] args) {
+        boolean isBatch = false;
+        int checkpointInterval = 0;
+        Path script = null;
+        String dataFile = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                case "--batch":
+                    isBatch = true;
+                    break;
+                case "--checkpoint":
+                    isBatch = true;
+                    checkpointInterval = Integer.parseInt(valueOf(args, i++));
+                    if (checkpointInterval < 1) {
+                        throw new IllegalArgumentException("Checkpoint interval must be positive.");
+                    }
+                    break;
+                case "--script":
+                    script = Path.of(valueOf(args, i++));
+                    break;
+                default:
+                    if (args[i].startsWith("--") || dataFile != null) {
+                        throw new IllegalArgumentException("Unknown option: " + args[i]);
+                    }
+                    dataFile = args[i];
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8), OUTPUT_BUFFER_SIZE));
+        try (SillyRat sillyRat = dataFile != null ? new SillyRat(dataFile) : new SillyRat();
+                BufferedReader in = script != null
+                ? Files.newBufferedReader(script, StandardCharsets.UTF_8)
+                : new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))) {
+            Cli cli = new Cli(sillyRat, in, out, script == null && System.console() != null);
+            if (isBatch) {
+                cli.setBatch(checkpointInterval);
+            }
+            cli.run();
+        } catch (IOException e) {
+            System.err.println("SillyRat stopped: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static String valueOf(String[] args, int optionIndex) {
+        if (optionIndex + 1 >= args.length) {
+            throw new IllegalArgumentException(args[optionIndex] + " needs a value");
+        }
+        return args[optionIndex + 1];
+    }
+
+    /**
+     * Switches to batch mode, where changes are kept in memory and saved at checkpoints, and output is
+     * written out only at checkpoints and at the end.
+     *
+     * @param checkpointInterval The number of commands between checkpoints, or 0 to save only at the end.
+     */
+    public void setBatch(int checkpointInterval) {
+        assert checkpointInterval >= 0 : "Checkpoint interval must not be negative";
+        this.isBatch = true;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Shows the startup reminder, then answers commands until {@code bye} or the end of the input.
+     * Each reply is followed by a blank line. Outside batch mode, each reply is written out before the next
+     * command is read; in batch mode, changes are saved and output written out at each checkpoint and at the end.
+     *
+     * @throws IOException If the input cannot be read or changes cannot be saved.
+     */
+    public void run() throws IOException {
+        if (isBatch) {
+            sillyRat.startBatch();
+        }
+        try {
+            out.println(sillyRat.getStartupReminder());
+            out.println();
+            int sinceCheckpoint = 0;
+            while (true) {
+                if (!isBatch) {
+                    if (isInteractive) {
+                        out.print(PROMPT);
+                    }
+                    out.flush();
+                }
+                String line = in.readLine();
+                if (line == null) {
+                    break;
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                sillyRat.respond(line, out::println);
+                out.println();
+                if (line.trim().equalsIgnoreCase("bye")) {
+                    break;
+                }
+                if (isBatch && checkpointInterval > 0 && ++sinceCheckpoint == checkpointInterval) {
+                    sillyRat.checkpoint();
+                    out.flush();
+                    sinceCheckpoint = 0;
+                }
+            }
+        } finally {
+            try {
+                if (isBatch) {
+                    sillyRat.endBatch();
+                }
+            } finally {
+                out.flush();
+            }
+        }
+    }
+}
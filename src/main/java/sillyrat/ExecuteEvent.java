@@ -0,0 +1,32 @@
+package sillyrat;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for running one parsed command, including any journal write it makes.
+ */
+@Name("sillyrat.Execute")
+@Label("Execute Command")
+@Category({"SillyRat", "Commands"})
+@Description("Running one parsed command and writing its reply, including any journal write it makes")
+@StackTrace(false)
+class ExecuteEvent extends Event {
+    @Label("Command")
+    String command;
+
+    @Label("Task Count")
+    @Description("The number of tasks in the list after the command")
+    int taskCount;
+
+    /**
+     * Creates the event and starts timing it.
+     */
+    ExecuteEvent() {
+        begin();
+    }
+}
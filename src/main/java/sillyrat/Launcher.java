@@ -1,12 +1,35 @@
 package sillyrat;
 
+import java.util.Arrays;
+
 import javafx.application.Application;
+import sillyrat.server.TaskServer;
 
 /**
  * A launcher class for SillyRat application to work around classpath issues.
+ * Started with {@value #CLI_FLAG} as the first argument, it runs the text interface in {@link Cli} instead,
+ * and with {@value #SERVER_FLAG}, the HTTP server in {@link TaskServer}, passing on the remaining arguments;
+ * JavaFX is then never loaded.
  */
 public class Launcher {
+    private static final String CLI_FLAG = "--cli";
+    private static final String SERVER_FLAG = "--server";
+
+    /**
+     * Starts the GUI, the text interface if the first argument is {@value #CLI_FLAG},
+     * or the HTTP server if it is {@value #SERVER_FLAG}.
+     *
+     * @param args The command-line arguments.
+     */
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals(CLI_FLAG)) {
+            Cli.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals(SERVER_FLAG)) {
+            TaskServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         Application.launch(Main.class, args);
     }
 }
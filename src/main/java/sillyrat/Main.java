@@ -1,17 +1,21 @@
 package sillyrat;
 import java.io.IOException;
+import java.nio.file.Path;
 
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.layout.AnchorPane;
 import javafx.stage.Stage;
+import sillyrat.metrics.CommandStats;
 import sillyrat.ui.MainWindow;
 
 /**
  * A GUI for SillyRat using FXML.
+ * If the {@value #STATS_FILE_PROPERTY} system property names a file, command stats are written to it every minute.
  */
 public class Main extends Application {
+    private static final String STATS_FILE_PROPERTY = "sillyrat.statsFile";
 
     private SillyRat sillyRat = new SillyRat();
 
@@ -27,10 +31,23 @@ public class Main extends Application {
             stage.setMinWidth(400);
             stage.setMinHeight(600);
 
+            String statsFile = System.getProperty(STATS_FILE_PROPERTY);
+            if (statsFile != null) {
+                sillyRat.startStatsDump(Path.of(statsFile), CommandStats.DEFAULT_DUMP_INTERVAL_MILLIS);
+            }
             fxmlLoader.<MainWindow>getController().setSillyRat(sillyRat);
             stage.show();
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+
+    @Override
+    public void stop() {
+        try {
+            sillyRat.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
 }
@@ -0,0 +1,32 @@
+package sillyrat;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for reading one line of user input as a command.
+ */
+@Name("sillyrat.Parse")
+@Label("Parse Command")
+@Category({"SillyRat", "Commands"})
+@Description("Reading one line of user input as a command")
+@StackTrace(false)
+class ParseEvent extends Event {
+    @Label("Command")
+    @Description("The command word, or null if the input was not a valid command")
+    String command;
+
+    @Label("Input Length")
+    int inputLength;
+
+    /**
+     * Creates the event and starts timing it.
+     */
+    ParseEvent() {
+        begin();
+    }
+}
@@ -1,24 +1,41 @@
 package sillyrat;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.List;
-
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import jdk.jfr.FlightRecorder;
 import sillyrat.common.DateTimeUtil;
 import sillyrat.common.SillyRatException;
+import sillyrat.metrics.CommandStats;
+import sillyrat.metrics.CommandStats.Phase;
 import sillyrat.parser.Command;
+import sillyrat.parser.CommandScanner;
 import sillyrat.parser.DeadlineArgs;
 import sillyrat.parser.EventArgs;
 import sillyrat.parser.FindArgs;
 import sillyrat.parser.IndexArgs;
+import sillyrat.parser.PageArgs;
 import sillyrat.parser.ParsedCommand;
-import sillyrat.parser.Parser;
 import sillyrat.parser.TodoArgs;
+import sillyrat.storage.CommitPolicy;
 import sillyrat.storage.Storage;
+import sillyrat.storage.StorageFormat;
 import sillyrat.task.Deadline;
 import sillyrat.task.Event;
 import sillyrat.task.Task;
+import sillyrat.task.TaskChange;
 import sillyrat.task.TaskList;
+import sillyrat.task.TaskPage;
 import sillyrat.task.Todo;
 
 /**
@@ -26,31 +43,69 @@ import sillyrat.task.Todo;
  * Coordinates parsing, task management, storage, and response generation.
  * Javadoc comments in this class were written with the assistance of AI (ChatGPT, Claude).
  */
-public class SillyRat {
+public class SillyRat implements AutoCloseable {
 
-    private static final Parser PARSER = new Parser();
     /** Number of days ahead to check for upcoming task reminders. */
     private static final int REMINDER_DAYS = 7;
+    /** System property that sets how many changes {@code undo} can go back. */
+    private static final String UNDO_DEPTH_PROPERTY = "sillyrat.undoDepth";
+    private static final int DEFAULT_UNDO_DEPTH = 100;
 
     private final Storage storage;
     private final TaskList tasks;
+    /** Why the saved tasks could not be loaded, shown with the startup reminder, or null if they were. */
+    private final String loadFailure;
+    private final CommandScanner scanner = new CommandScanner();
+    private final CommandStats stats = new CommandStats();
+    /** Time spent saving by the command being executed, which is left out of its execute time. */
+    private long saveNanos;
+    private boolean hasSaved;
+    /** True while changes are kept in memory until the next checkpoint instead of being journaled. */
+    private boolean isBatching;
+    private boolean hasUnsavedChanges;
+    /** Held while a command runs, so that commands run one at a time; the running command is the only writer. */
+    private final Lock commandLock = new ReentrantLock();
+    /**
+     * Held for writing only while a command changes the list in memory, and for reading by queries from other
+     * threads. Saving, which only reads the list, happens outside it, so queries never wait for a save.
+     */
+    private final ReadWriteLock listLock = new ReentrantReadWriteLock();
 
     /**
      * Initializes the SillyRat application with a specified storage file path.
+     * Changes are group-committed to disk in the background.
      * Loads existing tasks from the file, or starts with an empty list if loading fails.
      *
      * @param filePath The path to the file used for persistent task storage.
      */
     public SillyRat(String filePath) {
-        this.storage = new Storage(filePath);
+        this(filePath, CommitPolicy.groupCommit());
+    }
+
+    /**
+     * Initializes the SillyRat application with a specified storage file path and durability mode.
+     * Loads existing tasks from the file, or starts with an empty list if loading fails, in which case the
+     * unreadable file is moved aside and the startup reminder says where.
+     * The last {@value #DEFAULT_UNDO_DEPTH} changes can be undone, or as many as the
+     * {@value #UNDO_DEPTH_PROPERTY} system property says.
+     *
+     * @param filePath The path to the file used for persistent task storage.
+     * @param commitPolicy When changes are written to disk.
+     */
+    public SillyRat(String filePath, CommitPolicy commitPolicy) {
+        this.storage = new Storage(filePath, StorageFormat.TEXT, Storage.DEFAULT_COMPACT_THRESHOLD, commitPolicy);
 
         TaskList loaded;
+        String failure = null;
         try {
-            loaded = new TaskList(storage.load());
+            loaded = storage.load();
         } catch (Exception e) {
             loaded = new TaskList();
+            failure = e.getMessage();
         }
+        loaded.setHistoryDepth(Math.max(0, Integer.getInteger(UNDO_DEPTH_PROPERTY, DEFAULT_UNDO_DEPTH)));
         this.tasks = loaded;
+        this.loadFailure = failure;
     }
 
     /**
@@ -62,19 +117,18 @@ public class SillyRat {
 
     /**
      * Returns a startup greeting with reminders about upcoming tasks within
-     * the next {@value #REMINDER_DAYS} days.
+     * the next {@value #REMINDER_DAYS} days, and a warning if the saved tasks could not be loaded.
      * This method is intended to be called once when the application first launches.
      *
      * @return The greeting and reminder message.
      */
     public String getStartupReminder() {
         String greeting = "Hello Master! Silly Rat at your service!";
-        String guide = "\n\nHere's what I can do:"
-                + "\n• New task: todo, deadline, event"
-                + "\n• Manage: list, mark, unmark, delete"
-                + "\n• Search: find"
-                + "\n• Reminders: remind"
-                + "\n• Exit: bye";
+        if (loadFailure != null) {
+            greeting += "\n\nSqueak! I couldn't load your saved tasks, so I'm starting with an empty list.\n"
+                    + loadFailure;
+        }
+        String guide = "\n\nHere's what I can do:" + CommandScanner.COMMAND_GUIDE + "\n• Exit: bye";
 
         List<Task> upcoming = tasks.getUpcoming(REMINDER_DAYS);
 
@@ -101,79 +155,338 @@ public class SillyRat {
      * @return The response message to display to the user.
      */
     public String getResponse(String input) {
+        StringJoiner response = new StringJoiner("\n");
+        respond(input, response::add);
+        return response.toString();
+    }
+
+    /**
+     * Processes user input and passes the chatbot's response to the given consumer in chunks.
+     * Each chunk is one or more whole lines without a trailing line break; joining the chunks with
+     * line breaks gives the text {@link #getResponse(String)} returns. Listings are passed one task
+     * per chunk, so a caller that writes chunks out as they arrive never holds a whole listing.
+     * The time spent parsing, executing and saving is recorded in the stats shown by {@code stats},
+     * and as Flight Recorder events while a recording is running.
+     * Commands run one at a time. A {@link #query(Function)} from another thread only waits while a command
+     * is changing the list in memory, not while it saves or writes its reply.
+     *
+     * @param input The raw user input string.
+     * @param out The consumer receiving the response chunks, in order.
+     */
+    public void respond(String input, Consumer<String> out) {
+        commandLock.lock();
+        try {
+            runCommand(input, out);
+        } finally {
+            commandLock.unlock();
+        }
+    }
+
+    /**
+     * Runs a read-only query against the task list. Queries may run at the same time as each other, from any
+     * thread, and see the list either before or after each change a command makes, never partway through one.
+     * They do not wait for saves. The query must not change the list or its tasks, nor keep references to them
+     * past its return.
+     *
+     * @param query The query to run.
+     * @param <T> The type of the result.
+     * @return The result of the query.
+     */
+    public <T> T query(Function<TaskList, T> query) {
+        listLock.readLock().lock();
+        try {
+            return query.apply(tasks);
+        } finally {
+            listLock.readLock().unlock();
+        }
+    }
+
+    private void runCommand(String input, Consumer<String> out) {
+        // Event classes stay unloaded until Flight Recorder is up, as loading the first one sets up its
+        // instrumentation, which would add a few hundred milliseconds to startup.
+        boolean hasFlightRecorder = FlightRecorder.isInitialized();
+        ParseEvent parseEvent = hasFlightRecorder ? new ParseEvent() : null;
+        ExecuteEvent executeEvent = null;
+        long start = System.nanoTime();
+        Command command = null;
+        saveNanos = 0;
+        hasSaved = false;
         try {
-            ParsedCommand parsed = PARSER.parse(input);
+            ParsedCommand parsed = scanner.parse(input);
             assert parsed != null : "Parser should never return null";
             assert parsed.getCommand() != null : "Command should never be null";
-            return executeCommand(parsed);
+            command = parsed.getCommand();
+            long parsedAt = System.nanoTime();
+            stats.record(Phase.PARSE, command, parsedAt - start);
+            commitParseEvent(parseEvent, command, input);
+            start = parsedAt;
+            executeEvent = hasFlightRecorder ? new ExecuteEvent() : null;
+            executeCommand(parsed, out);
         } catch (SillyRatException e) {
-            return e.getMessage();
+            out.accept(e.getMessage());
         } catch (Exception e) {
-            return "Oops... I tripped over my own tail. Shall we try again?";
+            out.accept("Oops... I tripped over my own tail. Shall we try again?");
+        } finally {
+            recordStats(command, System.nanoTime() - start);
+            if (command == null) {
+                commitParseEvent(parseEvent, null, input);
+            } else {
+                commitExecuteEvent(executeEvent, command);
+            }
         }
     }
 
+    /**
+     * Starts writing the stats shown by {@code stats} to a file at a fixed interval.
+     * The file is written one last time when the user says {@code bye}.
+     *
+     * @param file The file to write.
+     * @param intervalMillis The interval between writes, in milliseconds.
+     */
+    public void startStatsDump(Path file, long intervalMillis) {
+        stats.startDumping(file, intervalMillis);
+    }
+
+    /**
+     * Starts a batch: changes made from now on are kept in memory and written out as one snapshot by
+     * {@link #checkpoint()} or {@link #endBatch()}, instead of being journaled one at a time.
+     * Changes since the last checkpoint are lost if the program stops without reaching another one.
+     */
+    public void startBatch() {
+        commandLock.lock();
+        try {
+            isBatching = true;
+        } finally {
+            commandLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the whole list out as a snapshot if it changed since the batch started or since the last checkpoint.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    public void checkpoint() throws IOException {
+        commandLock.lock();
+        try {
+            if (!hasUnsavedChanges) {
+                return;
+            }
+            storage.save(tasks);
+            hasUnsavedChanges = false;
+            stats.setStorageTotals(storage.getSnapshotCount(), storage.getBytesWritten());
+        } finally {
+            commandLock.unlock();
+        }
+    }
+
+    /**
+     * Ends the batch with a checkpoint; changes are journaled one at a time again afterwards.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    public void endBatch() throws IOException {
+        commandLock.lock();
+        try {
+            checkpoint();
+            isBatching = false;
+        } finally {
+            commandLock.unlock();
+        }
+    }
+
+    /**
+     * Saves any changes still pending and stops the background threads for group commits and stats dumps.
+     * The application calls this once when it stops; no commands should be run afterwards.
+     *
+     * @throws IOException If pending changes cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        commandLock.lock();
+        try {
+            checkpoint();
+            storage.flush(tasks);
+        } finally {
+            try {
+                storage.close();
+            } finally {
+                stats.stopDumping();
+                commandLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Records the time since parsing finished, or since the input arrived if it did not parse,
+     * together with the storage and list counters.
+     *
+     * @param command The parsed command, or null if the input did not parse.
+     * @param nanos The time spent, in nanoseconds.
+     */
+    private void recordStats(Command command, long nanos) {
+        if (command == null) {
+            stats.record(Phase.PARSE, null, nanos);
+        } else {
+            stats.record(Phase.EXECUTE, command, nanos - saveNanos);
+            if (hasSaved) {
+                stats.record(Phase.SAVE, command, saveNanos);
+            }
+        }
+        stats.setStorageTotals(storage.getSnapshotCount(), storage.getBytesWritten());
+        stats.setListSize(tasks.size());
+    }
+
+    private static void commitParseEvent(ParseEvent event, Command command, String input) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.command = command == null ? null : command.name().toLowerCase();
+            event.inputLength = input == null ? 0 : input.length();
+            event.commit();
+        }
+    }
+
+    private void commitExecuteEvent(ExecuteEvent event, Command command) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.command = command.name().toLowerCase();
+            event.taskCount = tasks.size();
+            event.commit();
+        }
+    }
+
+    /**
+     * Makes a change to the task list, holding off queries from other threads until it is done.
+     *
+     * @param change The change, which must only change the list and not save it.
+     */
+    private void changeList(Runnable change) {
+        listLock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            listLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Notes a change made during a batch, which the next checkpoint saves.
+     *
+     * @return True if the change is left to a checkpoint, false if it should be journaled now.
+     */
+    private boolean deferSave() {
+        hasUnsavedChanges |= isBatching;
+        return isBatching;
+    }
+
+    /**
+     * Adds the time since the given start to the save time of the command being executed.
+     *
+     * @param start The {@link System#nanoTime()} reading taken before saving.
+     */
+    private void endSave(long start) {
+        saveNanos += System.nanoTime() - start;
+        hasSaved = true;
+    }
+
     /**
      * Dispatches the parsed command to the appropriate handler method.
      *
      * @param parsed The parsed command containing the command type and arguments.
-     * @return The response message for the executed command.
+     * @param out The consumer receiving the response chunks.
      * @throws SillyRatException If the command arguments are invalid.
      * @throws IOException If an error occurs while saving tasks.
      */
-    private String executeCommand(ParsedCommand parsed) throws SillyRatException, IOException {
+    private void executeCommand(ParsedCommand parsed, Consumer<String> out) throws SillyRatException, IOException {
         Command command = parsed.getCommand();
 
         switch (command) {
         case LIST:
-            return replyList();
+            replyList((PageArgs) parsed.getArgs(), out);
+            break;
 
         case BYE:
-            return "See you! Please bring more food next time :)";
+            long flushStart = System.nanoTime();
+            checkpoint();
+            storage.flush(tasks);
+            endSave(flushStart);
+            stats.stopDumping();
+            out.accept("See you! Please bring more food next time :)");
+            break;
 
         case TODO:
-            return addTaskAndSave(replyTodo((TodoArgs) parsed.getArgs()));
+            out.accept(addTaskAndSave(replyTodo((TodoArgs) parsed.getArgs())));
+            break;
 
         case DEADLINE:
-            return addTaskAndSave(replyDeadline((DeadlineArgs) parsed.getArgs()));
+            out.accept(addTaskAndSave(replyDeadline((DeadlineArgs) parsed.getArgs())));
+            break;
 
         case EVENT:
-            return addTaskAndSave(replyEvent((EventArgs) parsed.getArgs()));
+            out.accept(addTaskAndSave(replyEvent((EventArgs) parsed.getArgs())));
+            break;
 
         case MARK:
-            return modifyTaskAndSave(parsed, true);
+            out.accept(modifyTaskAndSave(parsed, true));
+            break;
 
         case UNMARK:
-            return modifyTaskAndSave(parsed, false);
+            out.accept(modifyTaskAndSave(parsed, false));
+            break;
 
         case DELETE:
-            return deleteTaskAndSave(parsed);
+            out.accept(deleteTaskAndSave(parsed));
+            break;
 
         case FIND:
-            return replyFind((FindArgs) parsed.getArgs());
+            replyFind((FindArgs) parsed.getArgs(), out);
+            break;
 
         case REMIND:
-            return replyRemind();
+            out.accept(replyRemind());
+            break;
+
+        case CONFLICTS:
+            out.accept(replyConflicts());
+            break;
+
+        case STATS:
+            out.accept("Here's where my time goes, Master:\n" + stats.report());
+            break;
+
+        case UNDO:
+            out.accept(undoOrRedoAndSave(true));
+            break;
+
+        case REDO:
+            out.accept(undoOrRedoAndSave(false));
+            break;
 
         default:
-            throw new SillyRatException("I don't understand Meowese, Master. "
-                    + "\n\nTalk in Squeakese:"
-                    + "\n• New task: todo, deadline, event"
-                    + "\n• Manage: list, mark, unmark, delete"
-                    + "\n• Search: find"
-                    + "\n• Reminders: remind");
+            throw new SillyRatException(CommandScanner.UNKNOWN_COMMAND_MESSAGE);
         }
     }
 
     /**
-     * Saves the current task list to storage and returns the given reply message.
+     * Journals the task that was just appended to the list, unless in a batch, and returns the given reply message.
      *
      * @param replyMessage The response message to return after saving.
      * @return The same reply message passed in.
      * @throws IOException If an error occurs while saving tasks.
      */
     private String addTaskAndSave(String replyMessage) throws IOException {
-        storage.save(tasks);
+        if (deferSave()) {
+            return replyMessage;
+        }
+        long start = System.nanoTime();
+        storage.appendAdd(tasks.get(tasks.size() - 1), tasks);
+        endSave(start);
         return replyMessage;
     }
 
@@ -183,15 +496,20 @@ public class SillyRat {
      * @param parsed The parsed command containing the task index.
      * @param markDone True to mark the task as done, false to unmark it.
      * @return The response message indicating the result.
-     * @throws SillyRatException If the task index is out of range.
+     * @throws SillyRatException If the task index is out of range or no task has the given ID.
      * @throws IOException If an error occurs while saving tasks.
      */
     private String modifyTaskAndSave(ParsedCommand parsed, boolean markDone)
             throws SillyRatException, IOException {
         IndexArgs args = (IndexArgs) parsed.getArgs();
-        int idx = toValidIndex(args.getTaskNumber(), tasks.size());
+        int idx = toValidIndex(args);
         String msg = replyMark(idx, markDone);
-        storage.save(tasks);
+        if (deferSave()) {
+            return msg;
+        }
+        long start = System.nanoTime();
+        storage.appendMark(idx, markDone, tasks);
+        endSave(start);
         return msg;
     }
 
@@ -200,33 +518,84 @@ public class SillyRat {
      *
      * @param parsed The parsed command containing the task index.
      * @return The response message indicating the result.
-     * @throws SillyRatException If the task index is out of range.
+     * @throws SillyRatException If the task index is out of range or no task has the given ID.
      * @throws IOException If an error occurs while saving tasks.
      */
     private String deleteTaskAndSave(ParsedCommand parsed) throws SillyRatException, IOException {
         IndexArgs args = (IndexArgs) parsed.getArgs();
-        int idx = toValidIndex(args.getTaskNumber(), tasks.size());
+        int idx = toValidIndex(args);
         String msg = replyDelete(idx);
-        storage.save(tasks);
+        if (deferSave()) {
+            return msg;
+        }
+        long start = System.nanoTime();
+        storage.appendDelete(idx, tasks);
+        endSave(start);
+        return msg;
+    }
+
+    /**
+     * Undoes the latest change to the list, or redoes the latest undone one, saves, and returns a reply.
+     * Putting back a deleted task anywhere but at the end of the list cannot be journaled, so it saves
+     * the whole list instead.
+     *
+     * @param isUndo True to undo, false to redo.
+     * @return The response message describing what changed.
+     * @throws IOException If an error occurs while saving tasks.
+     */
+    private String undoOrRedoAndSave(boolean isUndo) throws IOException {
+        TaskChange[] changed = new TaskChange[1];
+        changeList(() -> changed[0] = isUndo ? tasks.undo() : tasks.redo());
+        TaskChange change = changed[0];
+        if (change == null) {
+            return isUndo ? "Nothing to undo, Master." : "Nothing to redo, Master.";
+        }
+
+        TaskChange.Kind made = isUndo ? change.getKind().inverse() : change.getKind();
+        String msg = replyUndoOrRedo(isUndo, made, change.getTask());
+        if (deferSave()) {
+            return msg;
+        }
+        long start = System.nanoTime();
+        int idx = change.getIndex();
+        switch (made) {
+        case ADD:
+            if (idx == tasks.size() - 1) {
+                storage.appendAdd(change.getTask(), tasks);
+            } else {
+                storage.save(tasks);
+            }
+            break;
+        case DELETE:
+            storage.appendDelete(idx, tasks);
+            break;
+        default:
+            storage.appendMark(idx, made == TaskChange.Kind.MARK, tasks);
+            break;
+        }
+        endSave(start);
         return msg;
     }
 
     //region Responses
 
     /**
-     * Returns a formatted listing of all tasks currently in the task list.
+     * Writes one page of the task list, one task per chunk.
      *
-     * @return The formatted task list string, or a message if the list is empty.
+     * @param page The page to show.
+     * @param out The consumer receiving the response chunks.
+     * @throws SillyRatException If the page is past the end of the list.
      */
-    private String replyList() {
+    private void replyList(PageArgs page, Consumer<String> out) throws SillyRatException {
         if (tasks.isEmpty()) {
-            return "Nothing on the list now! Feed me tasks with todo/deadline/event.";
-        }
-        StringBuilder sb = new StringBuilder("Here are your master plans:\n");
-        for (int i = 0; i < tasks.size(); i++) {
-            sb.append(i + 1).append(". ").append(tasks.get(i)).append("\n");
+            out.accept("Nothing on the list now! Feed me tasks with todo/deadline/event.");
+            return;
         }
-        return sb.toString().trim();
+        TaskPage shown = tasks.page(toOffset(page), page.getPageSize());
+        requirePageExists(page, shown);
+
+        out.accept("Here are your master plans:");
+        writePage(shown, page, "list ", out);
     }
 
     /**
@@ -237,7 +606,7 @@ public class SillyRat {
      */
     private String replyTodo(TodoArgs args) {
         Task task = new Todo(args.getDescription());
-        tasks.add(task);
+        changeList(() -> tasks.add(task));
         return "Got it. I've added this task:\n  " + task
                 + "\nNow you have " + tasks.size() + " tasks in the list.";
     }
@@ -258,7 +627,7 @@ public class SillyRat {
         }
 
         Task task = new Deadline(args.getDescription(), by);
-        tasks.add(task);
+        changeList(() -> tasks.add(task));
         return "Got it. I've added this task:\n  " + task
                 + "\nNow you have " + tasks.size() + " tasks in the list.";
     }
@@ -284,10 +653,21 @@ public class SillyRat {
             throw new SillyRatException("Event end must not be earlier than start.");
         }
 
-        Task task = new Event(args.getDescription(), from, to);
-        tasks.add(task);
-        return "Got it. I've added this task:\n  " + task
+        Event task = new Event(args.getDescription(), from, to);
+        changeList(() -> tasks.add(task));
+        String reply = "Got it. I've added this task:\n  " + task
                 + "\nNow you have " + tasks.size() + " tasks in the list.";
+
+        List<Event> clashes = tasks.getClashes(task);
+        if (clashes.isEmpty()) {
+            return reply;
+        }
+        StringBuilder sb = new StringBuilder(reply);
+        sb.append("\n\nHeads up! It clashes with:");
+        for (Event clash : clashes) {
+            sb.append("\n  ").append(clash);
+        }
+        return sb.toString();
     }
 
     /**
@@ -308,11 +688,11 @@ public class SillyRat {
         }
 
         if (markDone) {
-            task.markDone();
+            changeList(() -> tasks.markDone(idx));
             return "Nice! I've marked this task as done:\n  " + task;
         }
 
-        task.unmarkDone();
+        changeList(() -> tasks.unmarkDone(idx));
         return "OK! I've marked this task as not done yet:\n  " + task;
     }
 
@@ -323,30 +703,56 @@ public class SillyRat {
      * @return The confirmation message with the removed task details.
      */
     private String replyDelete(int idx) {
-        Task removed = tasks.remove(idx);
+        Task removed = tasks.get(idx);
+        changeList(() -> tasks.remove(idx));
         return "Noted. I've removed this task:\n  " + removed
                 + "\nNow you have " + tasks.size() + " tasks in the list.";
     }
 
     /**
-     * Searches for tasks matching the given keywords and returns the results.
+     * Returns the reply to an undo or redo.
+     *
+     * @param isUndo True if the change was undone, false if it was redone.
+     * @param made The kind of change that was made to the list by undoing or redoing.
+     * @param task The task that was changed.
+     * @return The response message.
+     */
+    private String replyUndoOrRedo(boolean isUndo, TaskChange.Kind made, Task task) {
+        String done = isUndo ? "Undone! " : "Redone! ";
+        switch (made) {
+        case ADD:
+            return done + "This task is back on the list:\n  " + task
+                    + "\nNow you have " + tasks.size() + " tasks in the list.";
+        case DELETE:
+            return done + "I've removed this task:\n  " + task
+                    + "\nNow you have " + tasks.size() + " tasks in the list.";
+        case MARK:
+            return done + "I've marked this task as done:\n  " + task;
+        default:
+            return done + "I've marked this task as not done yet:\n  " + task;
+        }
+    }
+
+    /**
+     * Searches for tasks matching the given keywords and writes one page of the results, one task per chunk.
      *
-     * @param args The parsed find arguments containing the search string.
-     * @return The formatted list of matching tasks, or a message if none are found.
+     * @param args The parsed find arguments containing the search string and page.
+     * @param out The consumer receiving the response chunks.
+     * @throws SillyRatException If the page is past the last match.
      */
-    private String replyFind(FindArgs args) {
+    private void replyFind(FindArgs args, Consumer<String> out) throws SillyRatException {
         String keywords = args.getSearchString();
-        List<Task> found = tasks.find(keywords);
+        PageArgs page = args.getPage();
+        TaskPage found = tasks.find(keywords, toOffset(page), page.getPageSize());
 
-        if (found.isEmpty()) {
-            return "No tasks found matching your search term, Master.";
+        if (found.getTotal() == 0) {
+            out.accept("No tasks found matching your search term, Master.");
+            return;
         }
+        requirePageExists(page, found);
 
-        StringBuilder sb = new StringBuilder("Here are the matching tasks in your list:\n");
-        for (int i = 0; i < found.size(); i++) {
-            sb.append(i + 1).append(". ").append(found.get(i)).append("\n");
-        }
-        return sb.toString().trim();
+        out.accept("Here are the matching tasks in your list:");
+        writePage(found, page, "find " + keywords + " --page ", out);
     }
 
     /**
@@ -371,6 +777,97 @@ public class SillyRat {
         return sb.toString().trim();
     }
 
+    /**
+     * Returns every pair of undone events whose times overlap.
+     *
+     * @return The formatted list of clashing events, or a message if there are none.
+     */
+    private String replyConflicts() {
+        Map<Event, List<Event>> conflicts = tasks.getConflicts();
+
+        if (conflicts.isEmpty()) {
+            return "No clashing events. Your schedule is all clear, Master!";
+        }
+
+        StringBuilder sb = new StringBuilder("Squeak! These events overlap:\n");
+        int i = 1;
+        for (Map.Entry<Event, List<Event>> entry : conflicts.entrySet()) {
+            sb.append(i++).append(". ").append(entry.getKey()).append("\n");
+            for (Event clash : entry.getValue()) {
+                sb.append("   clashes with ").append(clash).append("\n");
+            }
+        }
+        return sb.toString().trim();
+    }
+
+    /**
+     * Writes the numbered tasks of a page, each followed by its ID so it can be referred to as {@code #id}
+     * even after the numbering changes. When there is more than one page, a last line says which page this
+     * is and how to ask for the next one.
+     *
+     * @param page The page of tasks to write.
+     * @param request The page that was asked for.
+     * @param nextPageCommand The command that asks for a given page, up to the page number.
+     * @param out The consumer receiving the response chunks.
+     */
+    private static void writePage(TaskPage page, PageArgs request, String nextPageCommand, Consumer<String> out) {
+        int number = page.getOffset() + 1;
+        for (Task task : page.getTasks()) {
+            out.accept(number++ + ". " + task + " #" + task.getId());
+        }
+
+        int pageCount = pageCount(page.getTotal(), request.getPageSize());
+        if (pageCount == 1) {
+            return;
+        }
+        String footer = "Page " + request.getPage() + " of " + pageCount + ".";
+        if (request.getPage() < pageCount) {
+            footer += " Next: " + nextPageCommand + (request.getPage() + 1)
+                    + (request.hasDefaultPageSize() ? "" : " --page-size " + request.getPageSize());
+        }
+        out.accept(footer);
+    }
+
+    /**
+     * Checks that a page asked for is not past the end of a non-empty listing.
+     *
+     * @param request The page that was asked for.
+     * @param page The page that was read.
+     * @throws SillyRatException If the page holds no tasks.
+     */
+    private static void requirePageExists(PageArgs request, TaskPage page) throws SillyRatException {
+        if (page.getTasks().isEmpty()) {
+            throw new SillyRatException("There's no page " + request.getPage() + ", Master. Pages go from 1 to "
+                    + pageCount(page.getTotal(), request.getPageSize()) + ".");
+        }
+    }
+
+    private static int toOffset(PageArgs page) {
+        return (int) Math.min(page.getOffset(), Integer.MAX_VALUE);
+    }
+
+    private static int pageCount(int total, int pageSize) {
+        return (total + pageSize - 1) / pageSize;
+    }
+
+    /**
+     * Resolves the task referred to by the given arguments, by position or by ID, to a zero-based index.
+     *
+     * @param args The parsed index arguments.
+     * @return The zero-based index.
+     * @throws SillyRatException If the list is empty, the task number is out of range, or no task has the ID.
+     */
+    private int toValidIndex(IndexArgs args) throws SillyRatException {
+        if (!args.isById()) {
+            return toValidIndex(args.getTaskNumber(), tasks.size());
+        }
+        int idx = tasks.indexOfId(args.getTaskId());
+        if (idx < 0) {
+            throw new SillyRatException("I can't find a task with ID #" + args.getTaskId() + ", Master.");
+        }
+        return idx;
+    }
+
     /**
      * Converts a one-based task number to a zero-based index after validation.
      *
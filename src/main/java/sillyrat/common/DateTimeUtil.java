@@ -3,9 +3,9 @@ package sillyrat.common;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.Month;
+import java.time.Year;
 import java.time.format.DateTimeFormatter;
-import java.time.format.ResolverStyle;
-import java.util.Locale;
 
 /**
  * Utility class for parsing and formatting date/time strings.
@@ -20,71 +20,212 @@ public class DateTimeUtil {
     private static final DateTimeFormatter STORAGE =
             DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
-    private static final DateTimeFormatter[] USER_DATE_TIME_FORMATS = {
-            DateTimeFormatter.ofPattern("d/M/uuuu HHmm", Locale.ENGLISH)
-                    .withResolverStyle(ResolverStyle.STRICT),
-            DateTimeFormatter.ofPattern("uuuu-MM-dd HHmm", Locale.ENGLISH)
-                    .withResolverStyle(ResolverStyle.STRICT)
-    };
+    /** Number of slots in the display cache; a power of two so a slot is picked by masking the hash. */
+    private static final int DISPLAY_CACHE_SIZE = 1024;
+    /**
+     * Direct-mapped cache of display strings. Entries are immutable, so threads can race on a slot
+     * without locking: the worst outcome is formatting a value again.
+     */
+    private static final DisplayCacheEntry[] DISPLAY_CACHE = new DisplayCacheEntry[DISPLAY_CACHE_SIZE];
 
-    private static final DateTimeFormatter[] USER_DATE_ONLY_FORMATS = {
-            DateTimeFormatter.ofPattern("uuuu-MM-dd", Locale.ENGLISH)
-                    .withResolverStyle(ResolverStyle.STRICT)
-    };
+    private static final String INVALID_FORMAT_MESSAGE = "Invalid date/time format.\n"
+            + "Accepted formats:\n"
+            + "  - YYYY-MM-DD (e.g., 2019-10-15)\n"
+            + "  - YYYY-MM-DD HHmm (e.g., 2019-10-15 1800)\n"
+            + "  - D/M/YYYY HHmm (e.g., 2/12/2019 1800 means 2 Dec 2019 18:00)\n"
+            + "Also: dates/times must not be in the past.";
+    /** Widest digit run accepted for a variable-width field, matching {@code DateTimeFormatter}. */
+    private static final int MAX_FIELD_DIGITS = 19;
+    /** Years of more than four digits must carry a sign, as with {@code uuuu} under strict resolution. */
+    private static final int YEAR_DIGITS = 4;
+    private static final long NO_VALUE = Long.MIN_VALUE;
+    /** Length of {@code uuuu-MM-ddTHH:mm:ss}, the form {@link #toStorageString(LocalDateTime)} writes. */
+    private static final int STORAGE_LENGTH = 19;
 
     private DateTimeUtil() {
     }
 
     /**
      * Parses a user-provided date/time string into a LocalDateTime object.
+     * Accepts {@code d/M/uuuu HHmm}, {@code uuuu-MM-dd HHmm} and {@code uuuu-MM-dd}, with the same strict
+     * field and calendar checks as the equivalent {@link DateTimeFormatter} patterns. The input's shape picks
+     * the format and fields are validated by hand, so a mismatch costs no exception until the final answer.
      *
      * @param raw The date/time string to parse.
      * @return The parsed LocalDateTime object.
-     * @throws IllegalArgumentException If the input string does not match any supported format.
+     * @throws IllegalArgumentException If the input does not match any supported format, or is in the past.
      */
     public static LocalDateTime parseUserDateTime(String raw) {
         String s = raw.trim();
 
-        for (DateTimeFormatter f : USER_DATE_TIME_FORMATS) {
-            try {
-                LocalDateTime dt = LocalDateTime.parse(s, f);
+        if (s.indexOf('/') >= 0) {
+            LocalDateTime dt = parseSlashDateTime(s);
+            if (dt == null) {
+                throw new IllegalArgumentException(INVALID_FORMAT_MESSAGE);
+            }
+            if (dt.isBefore(LocalDateTime.now())) {
+                throw new IllegalArgumentException("Date/time cannot be in the past.");
+            }
+            return dt;
+        }
 
-                if (dt.isBefore(LocalDateTime.now())) {
-                    throw new IllegalArgumentException("Date/time cannot be in the past.");
-                }
-                return dt;
-            } catch (Exception ignored) {
+        int dateEnd = isoDateEnd(s);
+        LocalDate date = dateEnd < 0 ? null : parseIsoDate(s, dateEnd);
+        if (date == null) {
+            throw new IllegalArgumentException(INVALID_FORMAT_MESSAGE);
+        }
+        if (dateEnd == s.length()) {
+            if (date.isBefore(LocalDate.now())) {
+                throw new IllegalArgumentException("Date cannot be before today.");
             }
+            return date.atStartOfDay();
+        }
+
+        LocalTime time = s.charAt(dateEnd) == ' ' ? parseTime(s, dateEnd + 1) : null;
+        if (time == null) {
+            throw new IllegalArgumentException(INVALID_FORMAT_MESSAGE);
         }
+        LocalDateTime dt = date.atTime(time);
+        if (dt.isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Date/time cannot be in the past.");
+        }
+        return dt;
+    }
 
-        for (DateTimeFormatter f : USER_DATE_ONLY_FORMATS) {
-            try {
-                LocalDate d = LocalDate.parse(s, f);
+    /**
+     * Parses {@code d/M/uuuu HHmm}, returning null if the text does not match.
+     */
+    private static LocalDateTime parseSlashDateTime(String s) {
+        int firstSlash = s.indexOf('/');
+        int secondSlash = s.indexOf('/', firstSlash + 1);
+        int space = secondSlash < 0 ? -1 : s.indexOf(' ', secondSlash + 1);
+        if (space < 0) {
+            return null;
+        }
+        long day = parseDigits(s, 0, firstSlash);
+        long month = parseDigits(s, firstSlash + 1, secondSlash);
+        long year = parseYear(s, secondSlash + 1, space);
+        LocalTime time = parseTime(s, space + 1);
+        if (year == NO_VALUE || time == null) {
+            return null;
+        }
+        LocalDate date = toDate(year, month, day);
+        return date == null ? null : date.atTime(time);
+    }
 
-                if (d.isBefore(LocalDate.now())) {
-                    throw new IllegalArgumentException("Date cannot be before today.");
-                }
-                return d.atStartOfDay();
-            } catch (Exception ignored) {
+    /**
+     * Returns the index just past {@code uuuu-MM-dd} at the start of the text, or -1 if the shape is wrong.
+     * A leading sign belongs to the year, so the year ends at the first dash after the first character.
+     */
+    private static int isoDateEnd(String s) {
+        int yearEnd = s.indexOf('-', 1);
+        int dateEnd = yearEnd + "-MM-dd".length();
+        if (yearEnd < 0 || dateEnd > s.length() || s.charAt(yearEnd + 3) != '-') {
+            return -1;
+        }
+        return dateEnd;
+    }
+
+    /**
+     * Parses the {@code uuuu-MM-dd} prefix ending at {@code dateEnd}, returning null if it is invalid.
+     */
+    private static LocalDate parseIsoDate(String s, int dateEnd) {
+        int yearEnd = dateEnd - "-MM-dd".length();
+        long year = parseYear(s, 0, yearEnd);
+        long month = parseFixedDigits(s, yearEnd + 1, 2);
+        long day = parseFixedDigits(s, yearEnd + 4, 2);
+        return year == NO_VALUE ? null : toDate(year, month, day);
+    }
+
+    /**
+     * Parses {@code HHmm} running to the end of the text, returning null if it is invalid.
+     */
+    private static LocalTime parseTime(String s, int from) {
+        if (s.length() - from != 4) {
+            return null;
+        }
+        long hour = parseFixedDigits(s, from, 2);
+        long minute = parseFixedDigits(s, from + 2, 2);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return null;
+        }
+        return LocalTime.of((int) hour, (int) minute);
+    }
+
+    /**
+     * Parses a year the way {@code uuuu} does: exactly four unsigned digits, or a signed value
+     * with at least four digits, where a plus sign is only allowed for years beyond four digits.
+     */
+    private static long parseYear(String s, int from, int to) {
+        char first = from < to ? s.charAt(from) : ' ';
+        boolean isSigned = first == '+' || first == '-';
+        int digits = to - from - (isSigned ? 1 : 0);
+        if ((!isSigned && digits != YEAR_DIGITS)
+                || (first == '+' && digits <= YEAR_DIGITS)
+                || (first == '-' && digits < YEAR_DIGITS)) {
+            return NO_VALUE;
+        }
+        long value = parseDigits(s, isSigned ? from + 1 : from, to);
+        if (value < 0 || value > Year.MAX_VALUE || (first == '-' && value == 0)) {
+            return NO_VALUE;
+        }
+        return first == '-' ? -value : value;
+    }
+
+    private static long parseFixedDigits(String s, int from, int width) {
+        return from + width <= s.length() ? parseDigits(s, from, from + width) : -1;
+    }
+
+    /**
+     * Parses a run of one to {@value #MAX_FIELD_DIGITS} ASCII digits, or returns -1 if the span is anything else.
+     * Values too large for any date field saturate instead of overflowing.
+     */
+    private static long parseDigits(String s, int from, int to) {
+        if (from >= to || to - from > MAX_FIELD_DIGITS) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
             }
+            value = Math.min(value * 10 + (c - '0'), Integer.MAX_VALUE);
         }
+        return value;
+    }
 
-        throw new IllegalArgumentException(
-                "Invalid date/time format.\n"
-                        + "Accepted formats:\n"
-                        + "  - YYYY-MM-DD (e.g., 2019-10-15)\n"
-                        + "  - YYYY-MM-DD HHmm (e.g., 2019-10-15 1800)\n"
-                        + "  - D/M/YYYY HHmm (e.g., 2/12/2019 1800 means 2 Dec 2019 18:00)\n"
-                        + "Also: dates/times must not be in the past."
-        );
+    /**
+     * Returns the date if the fields form a real calendar date, or null otherwise.
+     */
+    private static LocalDate toDate(long year, long month, long day) {
+        if (month < 1 || month > 12 || day < 1) {
+            return null;
+        }
+        if (day > Month.of((int) month).length(Year.isLeap(year))) {
+            return null;
+        }
+        return LocalDate.of((int) year, (int) month, (int) day);
     }
 
     /**
      * Formats a LocalDateTime object into a human-readable string.
+     * Recently formatted values are served from a small shared cache, since many tasks share the same dates.
      * @param dt The LocalDateTime object to format.
      * @return The formatted string representing the date and time.
      */
     public static String toDisplayString(LocalDateTime dt) {
+        int slot = (dt.hashCode() ^ (dt.hashCode() >>> 16)) & (DISPLAY_CACHE_SIZE - 1);
+        DisplayCacheEntry entry = DISPLAY_CACHE[slot];
+        if (entry != null && entry.dateTime.equals(dt)) {
+            return entry.text;
+        }
+        String text = formatForDisplay(dt);
+        DISPLAY_CACHE[slot] = new DisplayCacheEntry(dt, text);
+        return text;
+    }
+
+    private static String formatForDisplay(LocalDateTime dt) {
         if (dt.toLocalTime().equals(LocalTime.MIDNIGHT)) {
             return dt.toLocalDate().format(DISPLAY_DATE);
         }
@@ -102,10 +243,46 @@ public class DateTimeUtil {
 
     /**
      * Parses a storage-friendly string into a LocalDateTime object.
+     * The exact form written by {@link #toStorageString(LocalDateTime)} is decoded directly from fixed offsets;
+     * anything else, such as surrounding whitespace, a missing seconds field or fractional seconds,
+     * goes through the ISO formatter.
      * @param raw The storage-friendly string to parse.
      * @return The parsed LocalDateTime object.
      */
     public static LocalDateTime parseStorageDateTime(String raw) {
-        return LocalDateTime.parse(raw.trim(), STORAGE);
+        LocalDateTime dt = raw.length() == STORAGE_LENGTH ? decodeStorageDateTime(raw) : null;
+        return dt != null ? dt : LocalDateTime.parse(raw.trim(), STORAGE);
+    }
+
+    /**
+     * Decodes {@code uuuu-MM-ddTHH:mm:ss}, returning null if the text is not exactly that form with valid fields.
+     */
+    private static LocalDateTime decodeStorageDateTime(String s) {
+        if (s.charAt(4) != '-' || s.charAt(7) != '-' || s.charAt(10) != 'T'
+                || s.charAt(13) != ':' || s.charAt(16) != ':') {
+            return null;
+        }
+        long year = parseFixedDigits(s, 0, 4);
+        long hour = parseFixedDigits(s, 11, 2);
+        long minute = parseFixedDigits(s, 14, 2);
+        long second = parseFixedDigits(s, 17, 2);
+        if (year < 0 || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return null;
+        }
+        LocalDate date = toDate(year, parseFixedDigits(s, 5, 2), parseFixedDigits(s, 8, 2));
+        return date == null ? null : date.atTime((int) hour, (int) minute, (int) second);
+    }
+
+    /**
+     * A formatted date/time together with the value it was formatted from.
+     */
+    private static class DisplayCacheEntry {
+        private final LocalDateTime dateTime;
+        private final String text;
+
+        DisplayCacheEntry(LocalDateTime dateTime, String text) {
+            this.dateTime = dateTime;
+            this.text = text;
+        }
     }
 }
@@ -0,0 +1,193 @@
+package sillyrat.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.StringJoiner;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import sillyrat.parser.Command;
+
+/**
+ * Collects how long each {@link Command} spends being parsed, executed and saved, with counters for the
+ * storage and the task list. Each command and phase has its own {@link LatencyHistogram}, created the first
+ * time it is used; from then on, recording allocates nothing and takes an uncontended lock.
+ * The collected numbers can be read as a text report, and written to a file at a fixed interval.
+ */
+public class CommandStats {
+    /** Default interval between dumps to the stats file. */
+    public static final long DEFAULT_DUMP_INTERVAL_MILLIS = 60_000;
+
+    /**
+     * The phases a command's time is split into.
+     */
+    public enum Phase {
+        PARSE, EXECUTE, SAVE
+    }
+
+    private static final Command[] COMMANDS = Command.values();
+    private static final Phase[] PHASES = Phase.values();
+    /** Histogram rows: one per command, and a last one for input that did not parse. */
+    private static final int ROWS = COMMANDS.length + 1;
+    private static final double NANOS_PER_MICRO = 1000.0;
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[PHASES.length * ROWS];
+    private long snapshots;
+    private long bytesWritten;
+    private int listSize;
+    private ScheduledExecutorService dumper;
+    private Path dumpFile;
+
+    /**
+     * Records the time spent in one phase of a command.
+     *
+     * @param phase The phase.
+     * @param command The command, or null for input that did not parse.
+     * @param nanos The time spent, in nanoseconds.
+     */
+    public synchronized void record(Phase phase, Command command, long nanos) {
+        int slot = phase.ordinal() * ROWS + (command == null ? COMMANDS.length : command.ordinal());
+        LatencyHistogram histogram = histograms[slot];
+        if (histogram == null) {
+            histogram = new LatencyHistogram();
+            histograms[slot] = histogram;
+        }
+        histogram.record(nanos);
+    }
+
+    /**
+     * Updates the storage counters with running totals.
+     *
+     * @param snapshots The number of snapshots written.
+     * @param bytesWritten The number of bytes written to the snapshot and journal.
+     */
+    public synchronized void setStorageTotals(long snapshots, long bytesWritten) {
+        this.snapshots = snapshots;
+        this.bytesWritten = bytesWritten;
+    }
+
+    public synchronized void setListSize(int listSize) {
+        this.listSize = listSize;
+    }
+
+    /**
+     * Returns the number of times the given phase was recorded for a command.
+     *
+     * @param phase The phase.
+     * @param command The command, or null for input that did not parse.
+     * @return The number of recorded times.
+     */
+    public synchronized long getCount(Phase phase, Command command) {
+        LatencyHistogram histogram = histograms[phase.ordinal() * ROWS
+                + (command == null ? COMMANDS.length : command.ordinal())];
+        return histogram == null ? 0 : histogram.getCount();
+    }
+
+    /**
+     * Returns the number of commands that saved a change.
+     *
+     * @return The number of saves.
+     */
+    public synchronized long getSaves() {
+        long saves = 0;
+        for (int row = 0; row < ROWS; row++) {
+            LatencyHistogram histogram = histograms[Phase.SAVE.ordinal() * ROWS + row];
+            saves += histogram == null ? 0 : histogram.getCount();
+        }
+        return saves;
+    }
+
+    /**
+     * Returns a report with one line per command and phase that was recorded, giving the count and the
+     * 50th, 90th and 99th percentile and largest times in microseconds, followed by the counters.
+     *
+     * @return The report, without a trailing line break.
+     */
+    public synchronized String report() {
+        StringJoiner report = new StringJoiner("\n");
+        report.add(String.format("%-9s %-7s %7s %9s %9s %9s %9s",
+                "command", "phase", "count", "p50 us", "p90 us", "p99 us", "max us"));
+        for (int row = 0; row < ROWS; row++) {
+            String name = row < COMMANDS.length ? COMMANDS[row].name().toLowerCase() : "(invalid)";
+            for (Phase phase : PHASES) {
+                LatencyHistogram histogram = histograms[phase.ordinal() * ROWS + row];
+                if (histogram == null) {
+                    continue;
+                }
+                report.add(String.format("%-9s %-7s %7d %9.1f %9.1f %9.1f %9.1f",
+                        name, phase.name().toLowerCase(), histogram.getCount(),
+                        histogram.getValueAtPercentile(50) / NANOS_PER_MICRO,
+                        histogram.getValueAtPercentile(90) / NANOS_PER_MICRO,
+                        histogram.getValueAtPercentile(99) / NANOS_PER_MICRO,
+                        histogram.getMax() / NANOS_PER_MICRO));
+            }
+        }
+        report.add("Saves: " + getSaves() + ", snapshots: " + snapshots + ", bytes written: " + bytesWritten
+                + ", tasks in list: " + listSize);
+        return report.toString();
+    }
+
+    /**
+     * Starts writing the report to a file at a fixed interval, on a background thread.
+     * The file is replaced on each write. Does nothing if dumping has already started.
+     *
+     * @param file The file to write.
+     * @param intervalMillis The interval between writes, in milliseconds.
+     */
+    public synchronized void startDumping(Path file, long intervalMillis) {
+        assert intervalMillis > 0 : "Dump interval must be positive";
+        if (dumper != null) {
+            return;
+        }
+        dumpFile = file;
+        dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sillyrat-stats-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleWithFixedDelay(() -> dumpQuietly(file), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background dumps, if any, and writes the report to their file one last time.
+     */
+    public void stopDumping() {
+        Path file;
+        synchronized (this) {
+            if (dumper == null) {
+                return;
+            }
+            dumper.shutdown();
+            dumper = null;
+            file = dumpFile;
+        }
+        dumpQuietly(file);
+    }
+
+    /**
+     * Writes the report to a file, headed by the time it was taken.
+     *
+     * @param file The file to write, replacing any existing content.
+     * @throws IOException If the file cannot be written.
+     */
+    public void dump(Path file) throws IOException {
+        String text = "SillyRat stats at " + LocalDateTime.now() + "\n" + report() + "\n";
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+    }
+
+    private void dumpQuietly(Path file) {
+        try {
+            dump(file);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package sillyrat.metrics;
+
+/**
+ * Records a distribution of durations in fixed memory, in the style of an HDR histogram.
+ * Each power of two is split into {@value #SUB_BUCKETS} equal buckets, so a percentile read back is within
+ * about 3% of the true value at any magnitude. Recording only increments an array element and never allocates.
+ * Values are in nanoseconds; those above {@value #MAX_TRACKABLE} (about 68 seconds) are counted in the top bucket.
+ * This class is not thread-safe.
+ */
+public class LatencyHistogram {
+    /** Largest value told apart from larger ones. */
+    public static final long MAX_TRACKABLE = (1L << 36) - 1;
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = bucketIndex(MAX_TRACKABLE) + 1;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long count;
+    private long total;
+    private long max;
+
+    /**
+     * Records one value. Negative values, which a clock step can produce, are recorded as zero.
+     *
+     * @param value The value, in nanoseconds.
+     */
+    public void record(long value) {
+        long clamped = Math.max(0, value);
+        counts[bucketIndex(clamped)]++;
+        count++;
+        total += clamped;
+        max = Math.max(max, clamped);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the mean of the recorded values.
+     *
+     * @return The mean, or 0 if nothing was recorded.
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    /**
+     * Returns the value below which the given percentage of recorded values fall.
+     * The result is the top of the bucket holding that value, but never more than the largest value recorded.
+     *
+     * @param percentile The percentage, from 0 to 100.
+     * @return The value at the percentile, or 0 if nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        assert percentile >= 0 && percentile <= 100 : "Percentile must be from 0 to 100";
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the bucket a value is counted in.
+     * Values below {@value #SUB_BUCKETS} get a bucket each; above that, the bucket is picked by the position of
+     * the highest set bit and the {@value #SUB_BUCKET_BITS} bits below it.
+     */
+    static int bucketIndex(long value) {
+        long clamped = Math.min(value, MAX_TRACKABLE);
+        if (clamped < SUB_BUCKETS) {
+            return (int) clamped;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(clamped) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (clamped >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * Returns the largest value counted in the given bucket.
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long top = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((top + 1) << shift) - 1;
+    }
+}
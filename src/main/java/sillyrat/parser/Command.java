@@ -4,7 +4,7 @@ package sillyrat.parser;
  * Enumerates all recognized user commands supported by the SillyRat chatbot.
  */
 public enum Command {
-    LIST, BYE, TODO, DEADLINE, EVENT, MARK, UNMARK, DELETE, FIND, REMIND;
+    LIST, BYE, TODO, DEADLINE, EVENT, MARK, UNMARK, DELETE, FIND, REMIND, CONFLICTS, STATS, UNDO, REDO;
 
     /**
      * Converts a command word string to a Command enum value.
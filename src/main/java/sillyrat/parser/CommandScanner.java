@@ -0,0 +1,463 @@
+package sillyrat.parser;
+
+import sillyrat.common.SillyRatException;
+
+/**
+ * Single-pass command parser that reports arguments as offsets into the input.
+ * {@link #scan(CharSequence)} walks the input once, resolves the command word through a precomputed table,
+ * and records the start and end of each argument without creating any objects for valid ASCII input,
+ * other than the page requested when a listing is paged.
+ * {@link #parse(CharSequence)} then turns the spans into a {@link ParsedCommand}.
+ * A scanner keeps the spans of the last input it scanned, so each instance must be used by one thread at a time.
+ */
+public class CommandScanner {
+    /** The commands that are understood, one group per line, each line starting with a line break. */
+    public static final String COMMAND_GUIDE = "\n• New task: todo, deadline, event"
+            + "\n• Manage: list, mark, unmark, delete, undo, redo"
+            + "\n• Search: find"
+            + "\n• Reminders: remind, conflicts"
+            + "\n• Info: stats";
+    /** Reply to an unrecognized command word, listing the commands that are understood. */
+    public static final String UNKNOWN_COMMAND_MESSAGE = "I don't understand Meowese, Master. "
+            + "\n\nTalk in Squeakese:" + COMMAND_GUIDE;
+
+    private static final String BY_DELIMITER = " /by ";
+    private static final String FROM_DELIMITER = " /from ";
+    private static final String TO_DELIMITER = " /to ";
+    private static final char TASK_ID_PREFIX = '#';
+    private static final int MAX_ARGS = 3;
+    /** Longest run of digits that always fits in an int, so the fast path cannot overflow. */
+    private static final int MAX_INT_DIGITS = 9;
+    /** Longest run of digits that always fits in a long. */
+    private static final int MAX_LONG_DIGITS = 18;
+    /** Commands grouped by the length of their name, for lookup without building an upper-case copy. */
+    private static final Command[][] COMMANDS_BY_LENGTH = buildCommandTable();
+
+    private final int[] argStarts = new int[MAX_ARGS];
+    private final int[] argEnds = new int[MAX_ARGS];
+    private CharSequence input;
+    private Command command;
+    private int commandStart;
+    private int commandEnd;
+    private int argCount;
+    private long number;
+    private boolean isById;
+    private PageArgs pageArgs;
+
+    /**
+     * Parses the given user input into a command with its arguments.
+     *
+     * @param input The raw user input.
+     * @return The parsed command.
+     * @throws SillyRatException If the input is empty, names an unknown command, or has invalid arguments.
+     */
+    public ParsedCommand parse(CharSequence input) throws SillyRatException {
+        switch (scan(input)) {
+        case TODO:
+            return new ParsedCommand(command, new TodoArgs(getArg(0)));
+        case DEADLINE:
+            return new ParsedCommand(command, new DeadlineArgs(getArg(0), getArg(1)));
+        case EVENT:
+            return new ParsedCommand(command, new EventArgs(getArg(0), getArg(1), getArg(2)));
+        case LIST:
+            return new ParsedCommand(command, pageArgs);
+        case FIND:
+            return new ParsedCommand(command, new FindArgs(getArg(0), pageArgs));
+        case MARK:
+        case UNMARK:
+        case DELETE:
+            return new ParsedCommand(command, isById ? IndexArgs.ofTaskId(number) : new IndexArgs((int) number));
+        default:
+            return new ParsedCommand(command, new NoArgs());
+        }
+    }
+
+    /**
+     * Scans and validates the given input, recording the command and the offsets of its arguments.
+     * Arguments are, in order: the description and due time for {@code deadline}; the description,
+     * start and end time for {@code event}; the description for {@code todo}; the search string for
+     * {@code find}, without its trailing paging options; and the task number or {@code #ID} for {@code mark},
+     * {@code unmark} and {@code delete}. The page asked for by {@code list} or {@code find} is kept separately.
+     *
+     * @param input The raw user input.
+     * @return The recognized command.
+     * @throws SillyRatException If the input is invalid.
+     */
+    public Command scan(CharSequence input) throws SillyRatException {
+        this.input = input;
+        argCount = 0;
+        int end = input == null ? 0 : input.length();
+        int start = skipBlank(0, end);
+        while (end > start && input.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            throw new SillyRatException("Say something, Master. My tiny ears heard nothing.");
+        }
+
+        commandStart = start;
+        commandEnd = start;
+        while (commandEnd < end && input.charAt(commandEnd) != ' ') {
+            commandEnd++;
+        }
+        command = lookupCommand(commandStart, commandEnd);
+        int restStart = skipBlank(Math.min(commandEnd + 1, end), end);
+
+        switch (command) {
+        case TODO:
+            scanTodo(restStart, end);
+            break;
+        case DEADLINE:
+            scanDeadline(restStart, end);
+            break;
+        case EVENT:
+            scanEvent(restStart, end);
+            break;
+        case LIST:
+            pageArgs = restStart == end ? PageArgs.firstPage() : PageArgs.parse(input, restStart, end, commandWord());
+            break;
+        case FIND:
+            scanFind(restStart, end);
+            break;
+        case MARK:
+        case UNMARK:
+        case DELETE:
+            scanIndex(restStart, end);
+            break;
+        default:
+            if (!isBlank(restStart, end)) {
+                throw new SillyRatException(commandWord() + " does not take any extra words.");
+            }
+            break;
+        }
+        return command;
+    }
+
+    public Command getCommand() {
+        return command;
+    }
+
+    public int getArgCount() {
+        return argCount;
+    }
+
+    /**
+     * Returns the offset of the first character of a scanned argument.
+     *
+     * @param arg The zero-based argument number.
+     * @return The start offset in the input.
+     */
+    public int getArgStart(int arg) {
+        assert arg < argCount : "Argument index must be within the scanned arguments";
+        return argStarts[arg];
+    }
+
+    /**
+     * Returns the offset just past the last character of a scanned argument.
+     *
+     * @param arg The zero-based argument number.
+     * @return The end offset in the input.
+     */
+    public int getArgEnd(int arg) {
+        assert arg < argCount : "Argument index must be within the scanned arguments";
+        return argEnds[arg];
+    }
+
+    /**
+     * Returns the task number or ID scanned for {@code mark}, {@code unmark} or {@code delete}.
+     *
+     * @return The one-based task number, or the task ID if {@link #isById()} is true.
+     */
+    public long getNumber() {
+        return number;
+    }
+
+    public boolean isById() {
+        return isById;
+    }
+
+    /**
+     * Returns the page scanned for {@code list} or {@code find}.
+     *
+     * @return The requested page, which is the first page unless paging options were given.
+     */
+    public PageArgs getPageArgs() {
+        return pageArgs;
+    }
+
+    private String getArg(int arg) {
+        return input.subSequence(argStarts[arg], argEnds[arg]).toString();
+    }
+
+    private void scanTodo(int start, int end) throws SillyRatException {
+        rejectPipe(start, end);
+        if (start == end) {
+            throw new SillyRatException("Todo needs a description. Example: todo borrow cheese");
+        }
+        addArg(start, end);
+    }
+
+    private void scanDeadline(int start, int end) throws SillyRatException {
+        boolean hasPipe = false;
+        int by = -1;
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            hasPipe |= c == '|';
+            if (by < 0 && c == ' ' && matches(BY_DELIMITER, i, end)) {
+                by = i;
+            }
+        }
+
+        if (hasPipe) {
+            throw pipeError();
+        }
+        if (start == end) {
+            throw new SillyRatException("Deadline needs details. Example: deadline submit report /by 2026-05-05 1600");
+        }
+        if (by < 0) {
+            throw new SillyRatException("Deadline format: deadline <task> /by YYYY-MM-DD HHmm");
+        }
+        addTrimmedArg(start, by);
+        addTrimmedArg(by + BY_DELIMITER.length(), end);
+        if (argEnds[0] == argStarts[0]) {
+            throw new SillyRatException(
+                    "Deadline description cannot be empty. "
+                            + "Example: deadline return book /by 2026-05-05 1600");
+        }
+        if (argEnds[1] == argStarts[1]) {
+            throw new SillyRatException("Deadline time cannot be empty. "
+                    + "Example: deadline return book /by 2026-05-05 1600");
+        }
+    }
+
+    private void scanEvent(int start, int end) throws SillyRatException {
+        boolean hasPipe = false;
+        int from = -1;
+        int to = -1;
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            hasPipe |= c == '|';
+            if (c != ' ') {
+                continue;
+            }
+            if (from < 0) {
+                if (matches(FROM_DELIMITER, i, end)) {
+                    from = i;
+                }
+            } else if (to < 0 && i >= from + FROM_DELIMITER.length() && matches(TO_DELIMITER, i, end)) {
+                to = i;
+            }
+        }
+
+        if (hasPipe) {
+            throw pipeError();
+        }
+        if (start == end) {
+            throw new SillyRatException("Event needs details."
+                    + " Example: event meeting /from 2026-05-05 1400 /to 2026-05-05 1600");
+        }
+        if (from < 0 || to < 0) {
+            throw new SillyRatException("Event format: event <task> /from YYYY-MM-DD HHmm /to YYYY-MM-DD HHmm");
+        }
+        addTrimmedArg(start, from);
+        addTrimmedArg(from + FROM_DELIMITER.length(), to);
+        addTrimmedArg(to + TO_DELIMITER.length(), end);
+        if (argEnds[0] == argStarts[0]) {
+            throw new SillyRatException("Event description cannot be empty.");
+        }
+        if (argEnds[1] == argStarts[1]) {
+            throw new SillyRatException("Event start time cannot be empty.");
+        }
+        if (argEnds[2] == argStarts[2]) {
+            throw new SillyRatException("Event end time cannot be empty.");
+        }
+    }
+
+    private void scanFind(int start, int end) throws SillyRatException {
+        int optionsStart = start == end ? end : PageArgs.trailingOptionsStart(input, start, end);
+        addTrimmedArg(start, optionsStart);
+        if (argEnds[0] == argStarts[0]) {
+            throw new SillyRatException("Please provide a search term. Example: find book");
+        }
+        pageArgs = optionsStart == end
+                ? PageArgs.firstPage()
+                : PageArgs.parse(input, optionsStart, end, commandWord() + " " + getArg(0));
+    }
+
+    private void scanIndex(int start, int end) throws SillyRatException {
+        if (start == end) {
+            throw new SillyRatException("Please provide a task number. Example: " + commandWord() + " 2");
+        }
+        addArg(start, end);
+
+        isById = input.charAt(start) == TASK_ID_PREFIX;
+        if (isById) {
+            number = parseDigits(start + 1, end, MAX_LONG_DIGITS);
+            if (number == -1) {
+                number = parseSlowly(start + 1, end, true);
+            }
+            if (number < 1) {
+                throw new SillyRatException("Task ID must be at least 1.");
+            }
+            return;
+        }
+
+        number = parseDigits(start, end, MAX_INT_DIGITS);
+        if (number == -1) {
+            number = parseSlowly(start, end, false);
+        }
+        if (number < 1) {
+            throw new SillyRatException("Task number must be at least 1.");
+        }
+    }
+
+    /**
+     * Parses a short run of ASCII digits, or returns -1 if the span is anything else.
+     */
+    private long parseDigits(int start, int end, int maxDigits) {
+        if (start == end || end - start > maxDigits) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Falls back to the JDK parsers for signs, non-ASCII digits, long numbers and malformed input,
+     * so that these are accepted or rejected exactly as {@link Integer#parseInt(String)} and
+     * {@link Long#parseLong(String)} do.
+     */
+    private long parseSlowly(int start, int end, boolean isId) throws SillyRatException {
+        String text = input.subSequence(start, end).toString();
+        try {
+            return isId ? Long.parseLong(text) : Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new SillyRatException(isId
+                    ? "Task ID must be a number. Example: " + commandWord() + " #12"
+                    : "Task number must be a number. Example: " + commandWord() + " 3");
+        }
+    }
+
+    private Command lookupCommand(int start, int end) throws SillyRatException {
+        int length = end - start;
+        if (length < COMMANDS_BY_LENGTH.length) {
+            for (Command candidate : COMMANDS_BY_LENGTH[length]) {
+                if (equalsIgnoreAsciiCase(candidate.name(), start)) {
+                    return candidate;
+                }
+            }
+        }
+
+        for (int i = start; i < end; i++) {
+            if (input.charAt(i) > 0x7F) {
+                // Upper-casing some non-ASCII letters yields ASCII ones; defer to the enum lookup for those.
+                try {
+                    return Command.fromString(commandWord());
+                } catch (IllegalArgumentException e) {
+                    break;
+                }
+            }
+        }
+        throw new SillyRatException(UNKNOWN_COMMAND_MESSAGE);
+    }
+
+    private boolean equalsIgnoreAsciiCase(String upperName, int start) {
+        for (int i = 0; i < upperName.length(); i++) {
+            char c = input.charAt(start + i);
+            if (c >= 'a' && c <= 'z') {
+                c -= 'a' - 'A';
+            }
+            if (c != upperName.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean matches(String delimiter, int at, int end) {
+        if (at + delimiter.length() > end) {
+            return false;
+        }
+        for (int i = 0; i < delimiter.length(); i++) {
+            if (input.charAt(at + i) != delimiter.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rejectPipe(int start, int end) throws SillyRatException {
+        for (int i = start; i < end; i++) {
+            if (input.charAt(i) == '|') {
+                throw pipeError();
+            }
+        }
+    }
+
+    private static SillyRatException pipeError() {
+        return new SillyRatException("Please don't use '|' in task input — I can't handle that.");
+    }
+
+    /**
+     * Returns whether the span holds only whitespace, as {@link String#isBlank()} would.
+     */
+    private boolean isBlank(int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(input.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int skipBlank(int from, int end) {
+        while (from < end && input.charAt(from) <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private void addArg(int start, int end) {
+        argStarts[argCount] = start;
+        argEnds[argCount] = end;
+        argCount++;
+    }
+
+    /**
+     * Records the span with surrounding blanks removed, as {@link String#trim()} would.
+     */
+    private void addTrimmedArg(int start, int end) {
+        start = skipBlank(start, end);
+        while (end > start && input.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        addArg(start, end);
+    }
+
+    private String commandWord() {
+        return input.subSequence(commandStart, commandEnd).toString();
+    }
+
+    private static Command[][] buildCommandTable() {
+        int longest = 0;
+        for (Command c : Command.values()) {
+            longest = Math.max(longest, c.name().length());
+        }
+        Command[][] table = new Command[longest + 1][0];
+        for (Command c : Command.values()) {
+            Command[] sameLength = table[c.name().length()];
+            Command[] grown = new Command[sameLength.length + 1];
+            System.arraycopy(sameLength, 0, grown, 0, sameLength.length);
+            grown[sameLength.length] = c;
+            table[c.name().length()] = grown;
+        }
+        return table;
+    }
+}
@@ -5,17 +5,33 @@ package sillyrat.parser;
  */
 public class FindArgs {
     private final String searchString;
+    private final PageArgs page;
 
     /**
-     * Initializes a new instance of the FindArgs class.
+     * Initializes a new instance of the FindArgs class for the first page of results.
      *
      * @param searchString The search string to find tasks.
      */
     public FindArgs(String searchString) {
+        this(searchString, PageArgs.firstPage());
+    }
+
+    /**
+     * Initializes a new instance of the FindArgs class for the given page of results.
+     *
+     * @param searchString The search string to find tasks.
+     * @param page The page of results to show.
+     */
+    public FindArgs(String searchString, PageArgs page) {
         this.searchString = searchString;
+        this.page = page;
     }
 
     public String getSearchString() {
         return searchString;
     }
+
+    public PageArgs getPage() {
+        return page;
+    }
 }
@@ -1,10 +1,13 @@
 package sillyrat.parser;
 
 /**
- * Encapsulates the arguments for a command that operates on a task by its index number.
+ * Encapsulates the arguments for a command that operates on a task by its index number or by its ID.
  */
 public class IndexArgs {
+    private static final long NO_TASK_ID = 0;
+
     private final int taskNumber;
+    private final long taskId;
 
     /**
      * Constructs a new IndexArgs with the given one-based task number.
@@ -12,10 +15,34 @@ public class IndexArgs {
      * @param taskNumber The one-based index of the target task.
      */
     public IndexArgs(int taskNumber) {
+        this(taskNumber, NO_TASK_ID);
+    }
+
+    private IndexArgs(int taskNumber, long taskId) {
         this.taskNumber = taskNumber;
+        this.taskId = taskId;
+    }
+
+    /**
+     * Returns arguments that refer to a task by its persistent ID rather than its position.
+     *
+     * @param taskId The ID of the target task.
+     * @return The index arguments.
+     */
+    public static IndexArgs ofTaskId(long taskId) {
+        assert taskId > NO_TASK_ID : "Task ID must be positive";
+        return new IndexArgs(0, taskId);
+    }
+
+    public boolean isById() {
+        return taskId != NO_TASK_ID;
     }
 
     public int getTaskNumber() {
         return taskNumber;
     }
+
+    public long getTaskId() {
+        return taskId;
+    }
 }
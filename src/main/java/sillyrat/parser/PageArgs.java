@@ -0,0 +1,203 @@
+package sillyrat.parser;
+
+import sillyrat.common.SillyRatException;
+
+/**
+ * Represents which page of a listing to show, for the {@code list} and {@code find} commands.
+ * Paging options are written as {@code --page N} and {@code --page-size N}; {@code list} also takes a bare page
+ * number. {@link Parser} and {@link CommandScanner} both read them through this class, so they always agree.
+ */
+public class PageArgs {
+    /** Number of tasks shown per page unless {@code --page-size} says otherwise. */
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    /** Largest page size accepted, which bounds the length of any single listing reply. */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    static final String PAGE_OPTION = "--page";
+    static final String PAGE_SIZE_OPTION = "--page-size";
+
+    private static final PageArgs FIRST_PAGE = new PageArgs(1, DEFAULT_PAGE_SIZE);
+    /** Longest run of digits that always fits in an int. */
+    private static final int MAX_DIGITS = 9;
+
+    private final int page;
+    private final int pageSize;
+
+    /**
+     * Constructs a new PageArgs for the given page.
+     *
+     * @param page The one-based page number.
+     * @param pageSize The number of tasks per page.
+     */
+    public PageArgs(int page, int pageSize) {
+        assert page >= 1 : "Page number must be at least 1";
+        assert pageSize >= 1 && pageSize <= MAX_PAGE_SIZE : "Page size must be within the allowed range";
+        this.page = page;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Returns the first page at the default page size.
+     *
+     * @return The default page arguments.
+     */
+    public static PageArgs firstPage() {
+        return FIRST_PAGE;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Returns the zero-based position of the first item on this page.
+     * The result is a long because a large page number times the page size can exceed an int.
+     *
+     * @return The offset of the page.
+     */
+    public long getOffset() {
+        return (long) (page - 1) * pageSize;
+    }
+
+    public boolean hasDefaultPageSize() {
+        return pageSize == DEFAULT_PAGE_SIZE;
+    }
+
+    /**
+     * Parses paging options, and for {@code list} a bare page number, from a span of the input.
+     * Words are separated by blanks, meaning any character up to and including a space.
+     *
+     * @param text The input holding the span.
+     * @param start The offset of the first character of the span.
+     * @param end The offset just past the last character of the span.
+     * @param exampleHead The start of a valid command, used in the examples of error messages.
+     * @return The parsed page, or the first page if the span is blank.
+     * @throws SillyRatException If a page number or size is missing or invalid.
+     */
+    static PageArgs parse(CharSequence text, int start, int end, String exampleHead) throws SillyRatException {
+        int page = 1;
+        int pageSize = DEFAULT_PAGE_SIZE;
+        boolean hasBarePage = false;
+
+        int i = skipBlank(text, start, end);
+        while (i < end) {
+            int wordEnd = wordEnd(text, i, end);
+            boolean isPageSize = matches(text, i, wordEnd, PAGE_SIZE_OPTION);
+            boolean isPage = matches(text, i, wordEnd, PAGE_OPTION);
+            if (isPageSize || isPage) {
+                i = skipBlank(text, wordEnd, end);
+                wordEnd = wordEnd(text, i, end);
+            } else if (hasBarePage) {
+                throw new SillyRatException("Only one page number, please. Example: " + exampleHead + " 2");
+            } else {
+                hasBarePage = true;
+            }
+
+            int value = parsePositive(text, i, wordEnd);
+            if (isPageSize) {
+                if (value < 1 || value > MAX_PAGE_SIZE) {
+                    throw new SillyRatException("Page size must be a number from 1 to " + MAX_PAGE_SIZE
+                            + ". Example: " + exampleHead + " " + PAGE_SIZE_OPTION + " 20");
+                }
+                pageSize = value;
+            } else {
+                if (value < 1) {
+                    throw new SillyRatException("Page number must be at least 1. Example: "
+                            + exampleHead + " " + PAGE_OPTION + " 2");
+                }
+                page = value;
+            }
+            i = skipBlank(text, wordEnd, end);
+        }
+
+        return page == 1 && pageSize == DEFAULT_PAGE_SIZE ? FIRST_PAGE : new PageArgs(page, pageSize);
+    }
+
+    /**
+     * Returns where the trailing {@code --page N} and {@code --page-size N} pairs of a span begin,
+     * so that the words before them can be read as free text.
+     *
+     * @param text The input holding the span.
+     * @param start The offset of the first character of the span.
+     * @param end The offset just past the last character of the span, which must not be a blank.
+     * @return The offset of the first trailing option, or {@code end} if the span does not end with one.
+     */
+    static int trailingOptionsStart(CharSequence text, int start, int end) {
+        int optionsStart = end;
+        while (true) {
+            int valueStart = wordStart(text, start, skipBlankBackward(text, start, optionsStart));
+            int optionEnd = skipBlankBackward(text, start, valueStart);
+            if (optionEnd == start) {
+                return optionsStart;
+            }
+            int optionStart = wordStart(text, start, optionEnd);
+            if (!matches(text, optionStart, optionEnd, PAGE_OPTION)
+                    && !matches(text, optionStart, optionEnd, PAGE_SIZE_OPTION)) {
+                return optionsStart;
+            }
+            optionsStart = optionStart;
+        }
+    }
+
+    /**
+     * Parses a run of ASCII digits, returning 0 for anything else so that callers reject it as too small.
+     */
+    private static int parsePositive(CharSequence text, int start, int end) {
+        if (start == end || end - start > MAX_DIGITS) {
+            return 0;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return 0;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean matches(CharSequence text, int start, int end, String word) {
+        if (end - start != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (text.charAt(start + i) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipBlank(CharSequence text, int from, int end) {
+        while (from < end && text.charAt(from) <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private static int skipBlankBackward(CharSequence text, int start, int to) {
+        while (to > start && text.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        return to;
+    }
+
+    private static int wordEnd(CharSequence text, int from, int end) {
+        while (from < end && text.charAt(from) > ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private static int wordStart(CharSequence text, int start, int to) {
+        while (to > start && text.charAt(to - 1) > ' ') {
+            to--;
+        }
+        return to;
+    }
+}
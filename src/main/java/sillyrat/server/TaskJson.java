@@ -0,0 +1,125 @@
+package sillyrat.server;
+
+import java.util.List;
+
+import sillyrat.task.Deadline;
+import sillyrat.task.Event;
+import sillyrat.task.Task;
+import sillyrat.task.TaskPage;
+
+/**
+ * Writes tasks as JSON for the server's endpoints.
+ * A task is an object with its {@code id}, {@code type} ({@code todo}, {@code deadline} or {@code event}),
+ * {@code description} and {@code done} flag, plus {@code by} for deadlines and {@code from} and {@code to}
+ * for events, as ISO-8601 local date-times.
+ */
+class TaskJson {
+    private TaskJson() {
+    }
+
+    /**
+     * Writes a page of tasks as an object with the {@code total} number of tasks, the {@code offset} of the
+     * first one on the page, and the {@code tasks} on the page.
+     *
+     * @param page The page to write.
+     * @return The JSON text.
+     */
+    static String page(TaskPage page) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"total\":").append(page.getTotal()).append(",\"offset\":").append(page.getOffset())
+                .append(",\"tasks\":");
+        appendTasks(sb, page.getTasks());
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Writes tasks as an object with the {@code tasks} in order.
+     *
+     * @param tasks The tasks to write.
+     * @return The JSON text.
+     */
+    static String tasks(List<? extends Task> tasks) {
+        StringBuilder sb = new StringBuilder("{\"tasks\":");
+        appendTasks(sb, tasks);
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Writes an object with a single {@code error} message.
+     *
+     * @param message The message.
+     * @return The JSON text.
+     */
+    static String error(String message) {
+        StringBuilder sb = new StringBuilder("{\"error\":");
+        appendString(sb, message);
+        return sb.append('}').toString();
+    }
+
+    private static void appendTasks(StringBuilder sb, List<? extends Task> tasks) {
+        sb.append('[');
+        for (int i = 0; i < tasks.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            appendTask(sb, tasks.get(i));
+        }
+        sb.append(']');
+    }
+
+    private static void appendTask(StringBuilder sb, Task task) {
+        sb.append("{\"id\":").append(task.getId()).append(",\"type\":");
+        if (task instanceof Deadline) {
+            sb.append("\"deadline\"");
+        } else if (task instanceof Event) {
+            sb.append("\"event\"");
+        } else {
+            sb.append("\"todo\"");
+        }
+        sb.append(",\"description\":");
+        appendString(sb, task.getDescription());
+        sb.append(",\"done\":").append(task.isDone());
+
+        if (task instanceof Deadline) {
+            sb.append(",\"by\":\"").append(((Deadline) task).getBy()).append('"');
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            sb.append(",\"from\":\"").append(event.getFrom()).append("\",\"to\":\"").append(event.getTo()).append('"');
+        }
+        sb.append('}');
+    }
+
+    /**
+     * Appends a JSON string literal, escaping quotes, backslashes and control characters.
+     */
+    static void appendString(StringBuilder sb, String text) {
+        sb.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+            case '"':
+                sb.append("\\\"");
+                break;
+            case '\\':
+                sb.append("\\\\");
+                break;
+            case '\n':
+                sb.append("\\n");
+                break;
+            case '\r':
+                sb.append("\\r");
+                break;
+            case '\t':
+                sb.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    sb.append(String.format("\\u%04x", (int) c));
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+        sb.append('"');
+    }
+}
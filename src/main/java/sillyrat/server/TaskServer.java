@@ -0,0 +1,318 @@
+package sillyrat.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import sillyrat.SillyRat;
+import sillyrat.parser.PageArgs;
+
+/**
+ * Serves one task list over HTTP on the loopback interface, so that several local tools can share it.
+ * Endpoints:
+ * <ul>
+ *   <li>{@code POST /command} runs the request body as a chat command and replies with SillyRat's text reply.</li>
+ *   <li>{@code GET /tasks?offset=N&limit=N} returns a page of the list as JSON.</li>
+ *   <li>{@code GET /find?q=KEYWORDS&offset=N&limit=N} returns a page of the matches of a search as JSON.</li>
+ *   <li>{@code GET /upcoming?days=N} returns the undone deadlines and events due within N days as JSON.</li>
+ * </ul>
+ * Each request is handled on its own pooled thread. Commands are handed to a single writer thread and run one
+ * at a time, in the order they arrive; the JSON endpoints query the list directly and run concurrently with
+ * each other and with saves, never seeing a change half made. See {@link TaskJson} for the JSON shapes.
+ * Requests that name another host or carry an {@code Origin} header are refused with 403, so that web pages
+ * open in a browser cannot reach the list, even by pointing their own host name at the loopback address.
+ * Usage: {@code TaskServer [--port N] [data-file]}.
+ */
+public class TaskServer implements AutoCloseable {
+    /** Port the server listens on unless another is given. */
+    public static final int DEFAULT_PORT = 8086;
+
+    private static final String USAGE = "Usage: TaskServer [--port N] [data-file]";
+    private static final int DEFAULT_UPCOMING_DAYS = 7;
+    /** Number of connections waiting to be accepted before new ones are refused. */
+    private static final int BACKLOG = 256;
+
+    static {
+        // Without TCP_NODELAY, the JDK server's separate header and body writes meet the client's delayed
+        // acknowledgements, adding up to 40 ms to every response. The setting is read once, when the first
+        // server is created.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final SillyRat sillyRat;
+    private final HttpServer server;
+    private final ExecutorService handlers = Executors.newCachedThreadPool(new DaemonThreadFactory("sillyrat-http"));
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(
+            new DaemonThreadFactory("sillyrat-writer"));
+
+    /**
+     * Constructs a server for the given SillyRat instance, bound to the given loopback port.
+     * The server does not answer requests until {@link #start()} is called.
+     *
+     * @param sillyRat The SillyRat instance whose list is served.
+     * @param port The port to listen on, or 0 for any free port.
+     * @throws IOException If the port cannot be bound.
+     */
+    public TaskServer(SillyRat sillyRat, int port) throws IOException {
+        this.sillyRat = sillyRat;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        server.setExecutor(handlers);
+        List<HttpContext> contexts = List.of(
+                server.createContext("/command", this::handleCommand),
+                server.createContext("/tasks", exchange -> handleQuery(exchange, this::queryTasks)),
+                server.createContext("/find", exchange -> handleQuery(exchange, this::queryFind)),
+                server.createContext("/upcoming", exchange -> handleQuery(exchange, this::queryUpcoming)));
+        Filter localCallersOnly = new LocalCallerFilter();
+        for (HttpContext context : contexts) {
+            context.getFilters().add(localCallersOnly);
+        }
+    }
+
+    /**
+     * Runs the server from the command line until the process is stopped.
+     *
+     * @param args Any options, followed by an optional path to the data file, which defaults to the one
+     *     the GUI uses.
+     */
+    public static void main(String[] args) {
+        int port = DEFAULT_PORT;
+        String dataFile = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--port")) {
+                    if (i + 1 >= args.length) {
+                        throw new IllegalArgumentException("--port needs a value");
+                    }
+                    port = Integer.parseInt(args[++i]);
+                } else if (args[i].startsWith("--") || dataFile != null) {
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+                } else {
+                    dataFile = args[i];
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        SillyRat sillyRat = dataFile != null ? new SillyRat(dataFile) : new SillyRat();
+        try {
+            TaskServer server = new TaskServer(sillyRat, port);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.close();
+                try {
+                    sillyRat.close();
+                } catch (IOException e) {
+                    System.err.println("Could not save on shutdown: " + e.getMessage());
+                }
+            }, "sillyrat-server-shutdown"));
+            server.start();
+            System.out.println("SillyRat is listening on http://127.0.0.1:" + server.getPort() + "/");
+        } catch (IOException e) {
+            System.err.println("Could not start the server: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting requests, waits briefly for ones in progress, and lets queued commands finish.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        handlers.shutdown();
+        writer.shutdown();
+    }
+
+    private void handleCommand(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                send(exchange, 405, "text/plain", "Use POST with the command as the body.");
+                return;
+            }
+            String input;
+            try (InputStream body = exchange.getRequestBody()) {
+                input = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+            }
+
+            Future<String> reply = writer.submit(() -> sillyRat.getResponse(input));
+            try {
+                send(exchange, 200, "text/plain", reply.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                send(exchange, 503, "text/plain", "The server is shutting down.");
+            } catch (ExecutionException e) {
+                send(exchange, 500, "text/plain", "The command failed.");
+            }
+        }
+    }
+
+    private void handleQuery(HttpExchange exchange, Query query) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                send(exchange, 405, "application/json", TaskJson.error("Use GET."));
+                return;
+            }
+            String json;
+            try {
+                json = query.run(parseQuery(exchange.getRequestURI().getRawQuery()));
+            } catch (IllegalArgumentException e) {
+                send(exchange, 400, "application/json", TaskJson.error(e.getMessage()));
+                return;
+            }
+            send(exchange, 200, "application/json", json);
+        }
+    }
+
+    private String queryTasks(Map<String, String> params) {
+        int offset = intParam(params, "offset", 0, 0, Integer.MAX_VALUE);
+        int limit = intParam(params, "limit", PageArgs.DEFAULT_PAGE_SIZE, 0, PageArgs.MAX_PAGE_SIZE);
+        return sillyRat.query(tasks -> TaskJson.page(tasks.page(offset, limit)));
+    }
+
+    private String queryFind(Map<String, String> params) {
+        String keywords = params.get("q");
+        if (keywords == null || keywords.isBlank()) {
+            throw new IllegalArgumentException("q must hold the keywords to search for");
+        }
+        int offset = intParam(params, "offset", 0, 0, Integer.MAX_VALUE);
+        int limit = intParam(params, "limit", PageArgs.DEFAULT_PAGE_SIZE, 0, PageArgs.MAX_PAGE_SIZE);
+        return sillyRat.query(tasks -> TaskJson.page(tasks.find(keywords, offset, limit)));
+    }
+
+    private String queryUpcoming(Map<String, String> params) {
+        int days = intParam(params, "days", DEFAULT_UPCOMING_DAYS, 0, Integer.MAX_VALUE);
+        return sillyRat.query(tasks -> TaskJson.tasks(tasks.getUpcoming(days)));
+    }
+
+    /**
+     * Reads an integer query parameter.
+     *
+     * @throws IllegalArgumentException If the parameter is not a whole number from {@code min} to {@code max}.
+     */
+    private static int intParam(Map<String, String> params, String name, int defaultValue, int min, int max) {
+        String value = params.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed >= min && parsed <= max) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below along with out-of-range values.
+        }
+        throw new IllegalArgumentException(name + " must be a whole number from " + min + " to " + max);
+    }
+
+    /**
+     * Splits a raw query string into decoded parameters; of repeated parameters, the last one wins.
+     */
+    static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Refuses requests unless their {@code Host} is this server's loopback address or {@code localhost}, with
+     * this server's port, and they carry no {@code Origin} header. Browsers send the page's own host name and
+     * an {@code Origin} with requests a page makes; local tools such as curl and scripts send neither.
+     */
+    private class LocalCallerFilter extends Filter {
+        @Override
+        public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+            Headers headers = exchange.getRequestHeaders();
+            String host = headers.getFirst("Host");
+            String port = ":" + getPort();
+            boolean isLocalHost = host != null
+                    && (host.equals("127.0.0.1" + port) || host.equalsIgnoreCase("localhost" + port));
+            if (!isLocalHost || headers.containsKey("Origin")) {
+                try (exchange) {
+                    send(exchange, 403, "text/plain", "Only tools on this computer may use this server.");
+                }
+                return;
+            }
+            chain.doFilter(exchange);
+        }
+
+        @Override
+        public String description() {
+            return "Refuses requests from web pages and for other hosts";
+        }
+    }
+
+    /**
+     * A JSON endpoint, which turns the request's query parameters into a response body.
+     */
+    private interface Query {
+        String run(Map<String, String> params);
+    }
+
+    /**
+     * Creates numbered daemon threads, so that the server never keeps the program alive on its own.
+     */
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        DaemonThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
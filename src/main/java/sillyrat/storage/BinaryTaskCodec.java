@@ -0,0 +1,203 @@
+package sillyrat.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import sillyrat.task.Deadline;
+import sillyrat.task.Event;
+import sillyrat.task.Task;
+import sillyrat.task.Todo;
+
+/**
+ * Reads and writes the binary snapshot format.
+ * A file starts with a four-byte magic and a version byte, followed by one record per task:
+ * a packed type/done byte, a varint task ID, a varint byte length, the UTF-8 description, and then
+ * one epoch-second long for a deadline or two for an event.
+ * Version 1 files, written before tasks had IDs, lack the ID and are still readable.
+ * Date/times are stored as if they were UTC, since tasks carry no zone of their own.
+ */
+class BinaryTaskCodec {
+    /** Starts with a NUL byte so it can never be mistaken for a tab-separated text line. */
+    private static final byte[] MAGIC = {0, 'S', 'R', 'B'};
+    private static final int VERSION = 2;
+    private static final int VERSION_WITHOUT_IDS = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final int TYPE_PLAIN = 0;
+    private static final int TYPE_TODO = 1;
+    private static final int TYPE_DEADLINE = 2;
+    private static final int TYPE_EVENT = 3;
+    private static final int TYPE_MASK = 0x03;
+    private static final int DONE_FLAG = 0x80;
+
+    private BinaryTaskCodec() {
+    }
+
+    /**
+     * Returns whether the file at the given path starts with the binary format magic.
+     *
+     * @param path The file to inspect.
+     * @return True if the file is a binary snapshot.
+     * @throws IOException If an I/O error occurs while reading.
+     */
+    static boolean isBinary(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] head = in.readNBytes(MAGIC.length);
+            if (head.length < MAGIC.length) {
+                return false;
+            }
+            for (int i = 0; i < MAGIC.length; i++) {
+                if (head[i] != MAGIC[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Writes the given tasks to a binary snapshot file.
+     *
+     * @param path The file to write.
+     * @param tasks The tasks to encode, in list order.
+     * @return The CRC32 checksum of the bytes written.
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    static long write(Path path, List<Task> tasks) throws IOException {
+        CheckedOutputStream checked = new CheckedOutputStream(Files.newOutputStream(path), new CRC32());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(checked, BUFFER_SIZE))) {
+            out.write(MAGIC);
+            out.writeByte(VERSION);
+            for (Task task : tasks) {
+                writeTask(out, task);
+            }
+        }
+        return checked.getChecksum().getValue();
+    }
+
+    /**
+     * Reads a binary snapshot file and passes every decoded task to the consumer.
+     *
+     * @param path The file to read.
+     * @param taskConsumer The callback receiving each task, in file order.
+     * @return The CRC32 checksum of the whole file content.
+     * @throws IOException If the file is truncated, has an unsupported version, or cannot be read.
+     */
+    static long read(Path path, Consumer<Task> taskConsumer) throws IOException {
+        CheckedInputStream checked = new CheckedInputStream(Files.newInputStream(path), new CRC32());
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(checked, BUFFER_SIZE))) {
+            in.skipNBytes(MAGIC.length);
+            int version = in.readUnsignedByte();
+            if (version != VERSION && version != VERSION_WITHOUT_IDS) {
+                throw new IOException("Unsupported binary storage version: " + version);
+            }
+            boolean hasIds = version != VERSION_WITHOUT_IDS;
+
+            int header;
+            while ((header = in.read()) != -1) {
+                long id = hasIds ? readVarLong(in) : Task.NO_ID;
+                if (id < Task.NO_ID) {
+                    throw new IOException("Malformed task ID in binary storage file");
+                }
+                Task task = readTask(in, header);
+                task.setId(id);
+                taskConsumer.accept(task);
+            }
+        }
+        return checked.getChecksum().getValue();
+    }
+
+    private static void writeTask(DataOutputStream out, Task task) throws IOException {
+        int type = typeOf(task);
+        out.writeByte(type | (task.isDone() ? DONE_FLAG : 0));
+        writeVarLong(out, task.getId());
+
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, description.length);
+        out.write(description);
+
+        if (type == TYPE_DEADLINE) {
+            out.writeLong(toEpochSecond(((Deadline) task).getBy()));
+        } else if (type == TYPE_EVENT) {
+            out.writeLong(toEpochSecond(((Event) task).getFrom()));
+            out.writeLong(toEpochSecond(((Event) task).getTo()));
+        }
+    }
+
+    private static Task readTask(DataInputStream in, int header) throws IOException {
+        long length = readVarLong(in);
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new IOException("Malformed description length in binary storage file");
+        }
+        byte[] description = new byte[(int) length];
+        in.readFully(description);
+        String text = new String(description, StandardCharsets.UTF_8);
+
+        boolean isDone = (header & DONE_FLAG) != 0;
+        switch (header & TYPE_MASK) {
+        case TYPE_TODO:
+            return new Todo(text, isDone);
+        case TYPE_DEADLINE:
+            return new Deadline(text, fromEpochSecond(in.readLong()), isDone);
+        case TYPE_EVENT:
+            return new Event(text, fromEpochSecond(in.readLong()), fromEpochSecond(in.readLong()), isDone);
+        default:
+            return new Task(text, isDone);
+        }
+    }
+
+    private static int typeOf(Task task) {
+        if (task instanceof Todo) {
+            return TYPE_TODO;
+        }
+        if (task instanceof Deadline) {
+            return TYPE_DEADLINE;
+        }
+        if (task instanceof Event) {
+            return TYPE_EVENT;
+        }
+        return TYPE_PLAIN;
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in binary storage file");
+    }
+
+    private static long toEpochSecond(LocalDateTime dt) {
+        return dt.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime fromEpochSecond(long seconds) {
+        return LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,59 @@
+package sillyrat.storage;
+
+/**
+ * Describes when journal records written by {@link Storage} reach the disk.
+ * Under {@link #SYNC} every record is written and forced before the mutating command returns.
+ * Under group commit, records are buffered and written together by a background thread
+ * every few milliseconds, or as soon as enough of them have piled up.
+ */
+public class CommitPolicy {
+    /** Writes and forces every journal record before returning. */
+    public static final CommitPolicy SYNC = new CommitPolicy(0, 1);
+
+    /** Default interval between background group commits. */
+    public static final long DEFAULT_INTERVAL_MILLIS = 200;
+    /** Default number of pending records that triggers an early group commit. */
+    public static final int DEFAULT_MAX_BATCH = 64;
+
+    private final long intervalMillis;
+    private final int maxBatch;
+
+    private CommitPolicy(long intervalMillis, int maxBatch) {
+        this.intervalMillis = intervalMillis;
+        this.maxBatch = maxBatch;
+    }
+
+    /**
+     * Returns a group-commit policy with the given flush interval and batch size.
+     *
+     * @param intervalMillis The longest a record may wait before being written, in milliseconds.
+     * @param maxBatch The number of pending records that triggers a write before the interval elapses.
+     * @return The group-commit policy.
+     */
+    public static CommitPolicy groupCommit(long intervalMillis, int maxBatch) {
+        assert intervalMillis > 0 : "Group commit interval must be positive";
+        assert maxBatch > 0 : "Group commit batch size must be positive";
+        return new CommitPolicy(intervalMillis, maxBatch);
+    }
+
+    /**
+     * Returns a group-commit policy using {@link #DEFAULT_INTERVAL_MILLIS} and {@link #DEFAULT_MAX_BATCH}.
+     *
+     * @return The default group-commit policy.
+     */
+    public static CommitPolicy groupCommit() {
+        return groupCommit(DEFAULT_INTERVAL_MILLIS, DEFAULT_MAX_BATCH);
+    }
+
+    public boolean isSync() {
+        return intervalMillis == 0;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    public int getMaxBatch() {
+        return maxBatch;
+    }
+}
@@ -0,0 +1,279 @@
+package sillyrat.storage;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import sillyrat.task.Deadline;
+import sillyrat.task.Event;
+import sillyrat.task.Task;
+import sillyrat.task.Todo;
+
+/**
+ * Generates synthetic task data files for benchmarks and scale tests.
+ * Tasks are written one line at a time through {@link Task#toSaveString()}, so files of any size can be
+ * produced without holding the tasks in memory. The same seed and settings always give the same file.
+ * Usage: {@code DatasetGenerator <target> <count> [--seed N] [--mix T:D:E] [--done-ratio R]
+ * [--spread-days N] [--words MIN-MAX] [--anchor YYYY-MM-DD]}.
+ */
+public class DatasetGenerator {
+    /**
+     * Words that descriptions are drawn from, most common first. Word choice is skewed towards the front,
+     * so a search for an early word matches many tasks and one for a late word matches few.
+     */
+    private static final String[] WORDS = {
+        "book", "read", "buy", "milk", "report", "meeting", "cheese", "library", "project", "review",
+        "call", "mum", "gym", "lecture", "tutorial", "assignment", "lab", "quiz", "exam", "dentist",
+        "rent", "groceries", "laundry", "team", "sync", "design", "release", "deploy", "budget", "trip",
+        "email", "invoice", "plan", "slides", "draft", "submit", "return", "collect", "parcel", "pay",
+        "bills", "clean", "room", "cook", "dinner", "party", "gift", "birthday", "flight", "hotel",
+    };
+    private static final String USAGE = "Usage: DatasetGenerator <target> <count> [--seed N] [--mix T:D:E]"
+            + " [--done-ratio R] [--spread-days N] [--words MIN-MAX] [--anchor YYYY-MM-DD]";
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    /** Times are whole quarter hours, like ones a user would type. */
+    private static final int MINUTE_STEP = 15;
+    private static final int MAX_EVENT_HOURS = 3;
+
+    private final Random random;
+    private int todoWeight = 5;
+    private int deadlineWeight = 3;
+    private int eventWeight = 2;
+    private double doneRatio = 0.2;
+    private int spreadDays = 180;
+    private int minWords = 2;
+    private int maxWords = 6;
+    private LocalDateTime anchor = LocalDate.now().atStartOfDay();
+    private long nextId = 1;
+
+    /**
+     * Constructs a generator with the default settings: todos, deadlines and events in the ratio 5:3:2,
+     * one task in five done, times within 180 days either side of today, and descriptions of two to six words.
+     *
+     * @param seed The seed for the random choices.
+     */
+    public DatasetGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Runs the generator from the command line.
+     *
+     * @param args The target path and task count, followed by any options.
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        try {
+            long count = Long.parseLong(args[1]);
+            if (count < 0) {
+                throw new IllegalArgumentException("Task count cannot be negative.");
+            }
+            DatasetGenerator generator = fromOptions(args, 2);
+            generator.write(Path.of(args[0]), count);
+            System.out.println("Generated " + count + " tasks: " + args[0]);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Generation failed: " + e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Creates a generator from command-line options.
+     *
+     * @param args The command-line arguments.
+     * @param from The index of the first option.
+     * @return The configured generator.
+     * @throws IllegalArgumentException If an option is unknown, lacks a value, or has an invalid value.
+     */
+    static DatasetGenerator fromOptions(String[] args, int from) {
+        long seed = 42;
+        for (int i = from; i < args.length; i += 2) {
+            if (args[i].equals("--seed")) {
+                seed = Long.parseLong(valueOf(args, i));
+            }
+        }
+
+        DatasetGenerator generator = new DatasetGenerator(seed);
+        for (int i = from; i < args.length; i += 2) {
+            String value = valueOf(args, i);
+            switch (args[i]) {
+            case "--seed":
+                break;
+            case "--mix":
+                String[] weights = value.split(":");
+                if (weights.length != 3) {
+                    throw new IllegalArgumentException("--mix needs three weights, like 5:3:2");
+                }
+                generator.setMix(Integer.parseInt(weights[0]), Integer.parseInt(weights[1]),
+                        Integer.parseInt(weights[2]));
+                break;
+            case "--done-ratio":
+                generator.setDoneRatio(Double.parseDouble(value));
+                break;
+            case "--spread-days":
+                generator.setSpreadDays(Integer.parseInt(value));
+                break;
+            case "--words":
+                String[] range = value.split("-");
+                if (range.length != 2) {
+                    throw new IllegalArgumentException("--words needs a range, like 2-6");
+                }
+                generator.setWordRange(Integer.parseInt(range[0]), Integer.parseInt(range[1]));
+                break;
+            case "--anchor":
+                generator.setAnchor(LocalDate.parse(value).atStartOfDay());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        return generator;
+    }
+
+    private static String valueOf(String[] args, int optionIndex) {
+        if (optionIndex + 1 >= args.length) {
+            throw new IllegalArgumentException(args[optionIndex] + " needs a value");
+        }
+        return args[optionIndex + 1];
+    }
+
+    /**
+     * Sets the relative numbers of todos, deadlines and events.
+     *
+     * @param todo The weight of todos.
+     * @param deadline The weight of deadlines.
+     * @param event The weight of events.
+     * @throws IllegalArgumentException If a weight is negative or all are zero.
+     */
+    public void setMix(int todo, int deadline, int event) {
+        if (todo < 0 || deadline < 0 || event < 0 || todo + deadline + event == 0) {
+            throw new IllegalArgumentException("Mix weights must not be negative, and one must be positive.");
+        }
+        this.todoWeight = todo;
+        this.deadlineWeight = deadline;
+        this.eventWeight = event;
+    }
+
+    /**
+     * Sets the fraction of tasks that are marked done.
+     *
+     * @param doneRatio The fraction, from 0 to 1.
+     * @throws IllegalArgumentException If the fraction is outside 0 to 1.
+     */
+    public void setDoneRatio(double doneRatio) {
+        if (!(doneRatio >= 0 && doneRatio <= 1)) {
+            throw new IllegalArgumentException("Done ratio must be from 0 to 1.");
+        }
+        this.doneRatio = doneRatio;
+    }
+
+    /**
+     * Sets how far deadlines and event starts may fall from the anchor date, in either direction.
+     *
+     * @param spreadDays The number of days either side of the anchor.
+     * @throws IllegalArgumentException If the number is negative.
+     */
+    public void setSpreadDays(int spreadDays) {
+        if (spreadDays < 0) {
+            throw new IllegalArgumentException("Spread must not be negative.");
+        }
+        this.spreadDays = spreadDays;
+    }
+
+    /**
+     * Sets the range of the number of words in a description; each length in the range is equally likely.
+     * A sequence number is added after the words, so descriptions are distinct.
+     *
+     * @param min The fewest words.
+     * @param max The most words.
+     * @throws IllegalArgumentException If the range is empty or starts below one.
+     */
+    public void setWordRange(int min, int max) {
+        if (min < 1 || max < min) {
+            throw new IllegalArgumentException("Word range must start at 1 or more and not be empty.");
+        }
+        this.minWords = min;
+        this.maxWords = max;
+    }
+
+    public void setAnchor(LocalDateTime anchor) {
+        this.anchor = anchor;
+    }
+
+    /**
+     * Generates the next task. Tasks are numbered with consecutive IDs from 1.
+     *
+     * @return The generated task.
+     */
+    public Task next() {
+        long id = nextId++;
+        String description = nextDescription(id);
+
+        int kind = random.nextInt(todoWeight + deadlineWeight + eventWeight);
+        // Arguments are evaluated left to right, so the done flag is drawn after the times and a seed keeps its output.
+        Task task;
+        if (kind < todoWeight) {
+            task = new Todo(description, nextDone());
+        } else if (kind < todoWeight + deadlineWeight) {
+            task = new Deadline(description, nextTime(), nextDone());
+        } else {
+            LocalDateTime from = nextTime();
+            task = new Event(description, from, from.plusMinutes(
+                    MINUTE_STEP * (1 + random.nextInt(MAX_EVENT_HOURS * 60 / MINUTE_STEP))), nextDone());
+        }
+
+        task.setId(id);
+        return task;
+    }
+
+    private boolean nextDone() {
+        return random.nextDouble() < doneRatio;
+    }
+
+    /**
+     * Writes the given number of generated tasks to a text data file, replacing any existing content.
+     *
+     * @param target The file to write.
+     * @param count The number of tasks.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(Path target, long count) throws IOException {
+        Path dir = target.toAbsolutePath().getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            for (long i = 0; i < count; i++) {
+                out.write(next().toSaveString());
+                out.write(System.lineSeparator());
+            }
+        }
+    }
+
+    private String nextDescription(long id) {
+        int words = minWords + random.nextInt(maxWords - minWords + 1);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            // Squaring a uniform value skews the choice towards the front of the word list.
+            double skewed = random.nextDouble();
+            sb.append(WORDS[(int) (skewed * skewed * WORDS.length)]).append(' ');
+        }
+        return sb.append(id).toString();
+    }
+
+    private LocalDateTime nextTime() {
+        int steps = 2 * spreadDays * (MINUTES_PER_DAY / MINUTE_STEP);
+        long offset = (long) random.nextInt(steps + 1) * MINUTE_STEP - (long) spreadDays * MINUTES_PER_DAY;
+        return anchor.plusMinutes(offset);
+    }
+}
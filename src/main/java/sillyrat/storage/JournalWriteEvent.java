@@ -0,0 +1,30 @@
+package sillyrat.storage;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one write and force of the journal file.
+ */
+@Name("sillyrat.JournalWrite")
+@Label("Journal Write")
+@Category({"SillyRat", "Storage"})
+@Description("One write and force of the journal file: a single record, a group-commit batch, or a new header")
+@StackTrace(false)
+class JournalWriteEvent extends Event {
+    @Label("Bytes Written")
+    @DataAmount
+    long bytesWritten;
+
+    /**
+     * Creates the event and starts timing it.
+     */
+    JournalWriteEvent() {
+        begin();
+    }
+}
@@ -0,0 +1,222 @@
+package sillyrat.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Appends records to the journal file according to a {@link CommitPolicy}.
+ * In group-commit mode, records are collected in memory and a background thread writes
+ * each batch with a single write and force, so a burst of commands costs one disk sync.
+ * A shutdown hook flushes whatever is still pending when the JVM exits.
+ * Once a write fails the journal may be missing records or end in a partial one, so nothing more is written
+ * until {@link #reset} starts it afresh; {@link #hasFailed()} tells the owner a snapshot is needed.
+ */
+class JournalWriter {
+    private final Path journalPath;
+    private final CommitPolicy policy;
+    /** Serializes file writes so a background flush never interleaves with a reset. */
+    private final Object writeLock = new Object();
+
+    private StringBuilder pending = new StringBuilder();
+    private int pendingCount;
+    private IOException failure;
+    private ScheduledExecutorService flusher;
+    private Thread shutdownHook;
+    /** Bytes written to the journal file so far; only updated while holding the write lock. */
+    private volatile long bytesWritten;
+
+    /**
+     * Constructs a writer for the given journal file.
+     *
+     * @param journalPath The journal file to append to.
+     * @param policy When appended records are written to disk.
+     */
+    JournalWriter(Path journalPath, CommitPolicy policy) {
+        this.journalPath = journalPath;
+        this.policy = policy;
+    }
+
+    /**
+     * Appends one record. Under group commit this only queues it for the next batch.
+     *
+     * @param record The record text, without a line terminator.
+     * @throws IOException If this or an earlier background write failed.
+     */
+    void append(String record) throws IOException {
+        String line = record + System.lineSeparator();
+        if (policy.isSync()) {
+            synchronized (writeLock) {
+                synchronized (this) {
+                    throwIfFailed();
+                }
+                writeOrFail(line);
+            }
+            return;
+        }
+
+        synchronized (this) {
+            throwIfFailed();
+            startFlusher();
+            pending.append(line);
+            pendingCount++;
+            if (pendingCount == policy.getMaxBatch()) {
+                flusher.execute(this::flushQuietly);
+            }
+        }
+    }
+
+    /**
+     * Discards any queued records and replaces the journal content with the given header.
+     * Queued records are dropped because the caller has just written a snapshot that contains them.
+     *
+     * @param header The header record, without a line terminator.
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    void reset(String header) throws IOException {
+        synchronized (writeLock) {
+            synchronized (this) {
+                pending = new StringBuilder();
+                pendingCount = 0;
+                failure = null;
+            }
+            write(header + System.lineSeparator(), StandardOpenOption.TRUNCATE_EXISTING);
+        }
+    }
+
+    /**
+     * Writes every queued record to disk before returning.
+     *
+     * @throws IOException If this or an earlier write failed.
+     */
+    void flush() throws IOException {
+        synchronized (writeLock) {
+            String batch;
+            synchronized (this) {
+                throwIfFailed();
+                if (pendingCount == 0) {
+                    return;
+                }
+                batch = pending.toString();
+                pending = new StringBuilder();
+                pendingCount = 0;
+            }
+            writeOrFail(batch);
+        }
+    }
+
+    /**
+     * Flushes queued records and stops the background thread.
+     *
+     * @throws IOException If the final flush fails.
+     */
+    void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            synchronized (this) {
+                if (flusher != null) {
+                    flusher.shutdown();
+                    flusher = null;
+                }
+                if (shutdownHook != null) {
+                    try {
+                        Runtime.getRuntime().removeShutdownHook(shutdownHook);
+                    } catch (IllegalStateException e) {
+                        // Already shutting down; the hook is running or has run.
+                    }
+                    shutdownHook = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether a write has failed since the last {@link #reset}, leaving the journal incomplete.
+     *
+     * @return True if the journal can no longer be appended to.
+     */
+    synchronized boolean hasFailed() {
+        return failure != null;
+    }
+
+    /**
+     * Returns the number of bytes written to the journal file, including headers and batches
+     * written by the background thread.
+     *
+     * @return The running total of bytes written.
+     */
+    long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            // Kept in failure; the next append or flush reports it.
+        }
+    }
+
+    private void throwIfFailed() throws IOException {
+        if (failure != null) {
+            throw new IOException("An earlier journal write failed", failure);
+        }
+    }
+
+    private void writeOrFail(String text) throws IOException {
+        try {
+            write(text, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            synchronized (this) {
+                failure = e;
+            }
+            throw e;
+        }
+    }
+
+    private void startFlusher() {
+        if (flusher != null) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sillyrat-journal-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly,
+                policy.getIntervalMillis(), policy.getIntervalMillis(), TimeUnit.MILLISECONDS);
+        shutdownHook = new Thread(this::flushQuietly, "sillyrat-journal-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    private void write(String text, StandardOpenOption mode) throws IOException {
+        // Like the other events, this one is only created once Flight Recorder is up, to keep it out of startup.
+        JournalWriteEvent event = FlightRecorder.isInitialized() ? new JournalWriteEvent() : null;
+        ByteBuffer bytes = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(journalPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+            bytesWritten += bytes.limit();
+        }
+
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.bytesWritten = bytes.limit();
+                event.commit();
+            }
+        }
+    }
+}
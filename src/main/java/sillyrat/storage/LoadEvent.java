@@ -0,0 +1,38 @@
+package sillyrat.storage;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for loading the task list from the snapshot and journal.
+ */
+@Name("sillyrat.Load")
+@Label("Load Tasks")
+@Category({"SillyRat", "Storage"})
+@Description("Loading the task list from the snapshot and replaying the journal on top")
+class LoadEvent extends Event {
+    @Label("Format")
+    String format;
+
+    @Label("Task Count")
+    int taskCount;
+
+    @Label("Journal Records")
+    @Description("The number of journal records replayed")
+    int journalRecords;
+
+    @Label("Snapshot Size")
+    @DataAmount
+    long snapshotBytes;
+
+    /**
+     * Creates the event and starts timing it.
+     */
+    LoadEvent() {
+        begin();
+    }
+}
@@ -0,0 +1,34 @@
+package sillyrat.storage;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for writing a snapshot of the task list.
+ */
+@Name("sillyrat.Save")
+@Label("Save Snapshot")
+@Category({"SillyRat", "Storage"})
+@Description("Writing a snapshot of the task list, as asked for or to compact the journal")
+class SaveEvent extends Event {
+    @Label("Format")
+    String format;
+
+    @Label("Task Count")
+    int taskCount;
+
+    @Label("Bytes Written")
+    @DataAmount
+    long bytesWritten;
+
+    /**
+     * Creates the event and starts timing it.
+     */
+    SaveEvent() {
+        begin();
+    }
+}
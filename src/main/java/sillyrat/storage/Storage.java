@@ -1,22 +1,55 @@
 package sillyrat.storage;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.CRC32;
 
+import jdk.jfr.FlightRecorder;
 import sillyrat.task.Task;
 import sillyrat.task.TaskList;
 
 /**
  * Handles reading and writing tasks to a file on disk.
  * Provides methods to load tasks from persistent storage and save them back.
+ * Mutations are appended to a journal file next to the snapshot, and the journal
+ * is folded back into the snapshot once it grows past a threshold.
+ * The snapshot is written in a {@link StorageFormat}; its format is detected on load.
+ * Journal records reach the disk according to a {@link CommitPolicy}.
  */
 public class Storage {
+    /** Number of journal records after which the journal is compacted into the snapshot. */
+    public static final int DEFAULT_COMPACT_THRESHOLD = 1000;
+
+    private static final String JOURNAL_SUFFIX = ".journal";
+    /** Suffix of the name an unreadable file is moved to, followed by a number if that name is taken. */
+    private static final String CORRUPT_SUFFIX = ".corrupt";
+    private static final String FIELD_SEPARATOR = "\t";
+    private static final String HEADER_RECORD = "S";
+    private static final String ADD_RECORD = "A";
+    private static final String MARK_RECORD = "M";
+    private static final String UNMARK_RECORD = "U";
+    private static final String DELETE_RECORD = "X";
+
     private final Path filePath;
+    private final Path journalPath;
+    private final int compactThreshold;
+    private final JournalWriter journalWriter;
+    private StorageFormat format;
+    private int journalRecords;
+    private boolean hasJournalHeader;
+    /** True after a failed {@link #load()}: the journal cannot extend the file on disk, so it must be rewritten. */
+    private boolean isSnapshotUnreadable;
+    /** True if an unreadable file could not be moved aside, so saving would overwrite it. */
+    private boolean isSaveBlocked;
+    private long snapshotCount;
+    private long snapshotBytes;
 
     /**
      * Constructs a new Storage instance with the specified file path.
@@ -24,8 +57,49 @@ public class Storage {
      * @param filePath The path to the storage file.
      */
     public Storage(String filePath) {
+        this(filePath, StorageFormat.TEXT, DEFAULT_COMPACT_THRESHOLD);
+    }
+
+    /**
+     * Constructs a new Storage instance that compacts its journal after the given number of records.
+     *
+     * @param filePath The path to the storage file.
+     * @param compactThreshold The number of journal records that triggers a snapshot rewrite.
+     */
+    public Storage(String filePath, int compactThreshold) {
+        this(filePath, StorageFormat.TEXT, compactThreshold);
+    }
+
+    /**
+     * Constructs a new Storage instance that writes snapshots in the given format.
+     * If {@link #load()} finds an existing snapshot in a different format, that format is kept instead.
+     *
+     * @param filePath The path to the storage file.
+     * @param format The format used for snapshots written by {@link #save(TaskList)}.
+     * @param compactThreshold The number of journal records that triggers a snapshot rewrite.
+     */
+    public Storage(String filePath, StorageFormat format, int compactThreshold) {
+        this(filePath, format, compactThreshold, CommitPolicy.SYNC);
+    }
+
+    /**
+     * Constructs a new Storage instance with full control over format, compaction and durability.
+     *
+     * @param filePath The path to the storage file.
+     * @param format The format used for snapshots written by {@link #save(TaskList)}.
+     * @param compactThreshold The number of journal records that triggers a snapshot rewrite.
+     * @param commitPolicy When journal records are written to disk.
+     */
+    public Storage(String filePath, StorageFormat format, int compactThreshold, CommitPolicy commitPolicy) {
         assert filePath != null && !filePath.trim().isEmpty() : "File path cannot be null or empty";
+        assert format != null : "Storage format cannot be null";
+        assert compactThreshold > 0 : "Compaction threshold must be positive";
+        assert commitPolicy != null : "Commit policy cannot be null";
         this.filePath = Paths.get(filePath);
+        this.journalPath = Paths.get(filePath + JOURNAL_SUFFIX);
+        this.format = format;
+        this.compactThreshold = compactThreshold;
+        this.journalWriter = new JournalWriter(journalPath, commitPolicy);
         assert this.filePath != null : "Path creation should succeed";
     }
 
@@ -43,39 +117,374 @@ public class Storage {
     }
 
     /**
-     * Loads tasks from the storage file and returns them as a list.
-     * Skips empty lines in the file. Creates the file if it does not yet exist.
+     * Loads tasks from the storage file and returns them as a task list.
+     * The file is streamed and decoded record by record rather than read into memory first.
+     * Skips empty lines in text files. Creates the file if it does not yet exist.
+     * Any journal records written since the last snapshot are replayed on top.
+     * If the file or its journal cannot be read, both are moved aside to a name ending in
+     * {@value #CORRUPT_SUFFIX} so that nothing overwrites them, and the next change saves a whole snapshot
+     * in their place. If they cannot be moved either, saving is refused.
      *
-     * @return A list of tasks loaded from the file.
-     * @throws IOException If an I/O error occurs while reading.
+     * @return The tasks loaded from the file, with no change history.
+     * @throws IOException If an I/O error occurs while reading; its message says where the file was moved.
      */
-    public List<Task> load() throws IOException {
+    public TaskList load() throws IOException {
+        // Loading an event class starts up Flight Recorder's instrumentation, which delays startup, so it waits
+        // until a recording has brought Flight Recorder up anyway.
+        LoadEvent event = FlightRecorder.isInitialized() ? new LoadEvent() : null;
+        isSnapshotUnreadable = true;
         ensureExists();
-        List<String> lines = Files.readAllLines(filePath, StandardCharsets.UTF_8);
-        List<Task> tasks = new ArrayList<>();
+        TaskList tasks = new TaskList();
+        try {
+            long checksum = readSnapshot(tasks);
+            replayJournal(tasks, checksum);
+        } catch (IOException | RuntimeException e) {
+            throw setAside(e);
+        }
+        isSnapshotUnreadable = false;
+        isSaveBlocked = false;
 
-        for (String line : lines) {
-            if (line.trim().isEmpty()) {
-                continue;
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.format = format.name().toLowerCase();
+                event.taskCount = tasks.size();
+                event.journalRecords = journalRecords;
+                event.snapshotBytes = Files.size(filePath);
+                event.commit();
             }
-            tasks.add(Task.toLoadTask(line));
         }
+        return tasks;
+    }
 
+    /**
+     * Reads the tasks from the storage file and replays its journal, like {@link #load()}, but without
+     * creating or changing either file. For tools that only read a data file, such as {@link StorageConverter}.
+     *
+     * @return The tasks read from the file.
+     * @throws NoSuchFileException If the storage file does not exist.
+     * @throws IOException If an I/O error occurs while reading, or the journal cannot be replayed.
+     */
+    public TaskList read() throws IOException {
+        if (Files.notExists(filePath)) {
+            throw new NoSuchFileException(filePath.toString(), null, "No such data file");
+        }
+        TaskList tasks = new TaskList();
+        List<String> records = readJournal(readSnapshot(tasks));
+        if (records != null) {
+            applyRecords(tasks, records);
+        }
         return tasks;
     }
 
+    /**
+     * Decodes the snapshot into the given list, noting the format it is stored in.
+     *
+     * @return The checksum of the snapshot, which journals extending it carry in their header.
+     */
+    private long readSnapshot(TaskList tasks) throws IOException {
+        if (BinaryTaskCodec.isBinary(filePath)) {
+            format = StorageFormat.BINARY;
+            return BinaryTaskCodec.read(filePath, tasks::add);
+        }
+        if (Files.size(filePath) > 0) {
+            format = StorageFormat.TEXT;
+            return new TaskFileReader().read(filePath, line -> tasks.add(Task.toLoadTask(line)));
+        }
+        return checksumOf(filePath);
+    }
+
     /**
      * Saves all tasks in the given task list to the storage file.
-     * Overwrites the existing file content.
+     * Overwrites the existing file content and starts a fresh journal.
      *
      * @param tasks The task list to be saved.
      * @throws IOException If an I/O error occurs while writing.
      */
     public void save(TaskList tasks) throws IOException {
+        if (isSaveBlocked) {
+            throw new IOException("Not saving over " + filePath + ", which could not be read or moved aside");
+        }
+        SaveEvent event = FlightRecorder.isInitialized() ? new SaveEvent() : null;
         ensureExists();
-        List<String> lines = tasks.asList().stream()
-                .map(Task::toSaveString)
-                .toList();
-        Files.write(filePath, lines, StandardCharsets.UTF_8, StandardOpenOption.TRUNCATE_EXISTING);
+        Path tmp = Paths.get(filePath + ".tmp");
+        long checksum = format == StorageFormat.BINARY
+                ? BinaryTaskCodec.write(tmp, tasks.asList())
+                : writeText(tmp, tasks);
+        long written = Files.size(tmp);
+        snapshotBytes += written;
+        snapshotCount++;
+
+        try {
+            Files.move(tmp, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, filePath, StandardCopyOption.REPLACE_EXISTING);
+        }
+        startJournal(checksum);
+        isSnapshotUnreadable = false;
+
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.format = format.name().toLowerCase();
+                event.taskCount = tasks.size();
+                event.bytesWritten = written;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Returns the format snapshots are currently written in.
+     *
+     * @return The snapshot format.
+     */
+    public StorageFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Returns the number of snapshots written by {@link #save(TaskList)},
+     * including ones written to compact the journal.
+     *
+     * @return The number of snapshots written since this storage was created.
+     */
+    public long getSnapshotCount() {
+        return snapshotCount;
+    }
+
+    /**
+     * Returns the number of bytes written to the snapshot and journal files.
+     * Journal records waiting for a group commit are not counted until they are written.
+     *
+     * @return The number of bytes written since this storage was created.
+     */
+    public long getBytesWritten() {
+        return snapshotBytes + journalWriter.getBytesWritten();
+    }
+
+    private static long writeText(Path path, TaskList tasks) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (Task task : tasks.asList()) {
+            sb.append(task.toSaveString()).append(System.lineSeparator());
+        }
+        byte[] snapshot = sb.toString().getBytes(StandardCharsets.UTF_8);
+        Files.write(path, snapshot);
+        return checksum(snapshot);
+    }
+
+    /**
+     * Records that a task was appended to the end of the list.
+     *
+     * @param task The task that was added.
+     * @param tasks The task list after the addition, used if the journal needs compacting.
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    public void appendAdd(Task task, TaskList tasks) throws IOException {
+        appendRecord(ADD_RECORD + FIELD_SEPARATOR + task.toSaveString(), tasks);
+    }
+
+    /**
+     * Records that the task at the given index was marked or unmarked.
+     *
+     * @param index The zero-based index of the task.
+     * @param isDone The new done state of the task.
+     * @param tasks The task list after the change, used if the journal needs compacting.
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    public void appendMark(int index, boolean isDone, TaskList tasks) throws IOException {
+        appendRecord((isDone ? MARK_RECORD : UNMARK_RECORD) + FIELD_SEPARATOR + index, tasks);
+    }
+
+    /**
+     * Records that the task at the given index was removed.
+     *
+     * @param index The zero-based index of the removed task.
+     * @param tasks The task list after the removal, used if the journal needs compacting.
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    public void appendDelete(int index, TaskList tasks) throws IOException {
+        appendRecord(DELETE_RECORD + FIELD_SEPARATOR + index, tasks);
+    }
+
+    /**
+     * Writes any journal records still waiting for a group commit.
+     * If an earlier journal write failed, saves a whole snapshot instead, as the journal is missing records.
+     *
+     * @param tasks The current task list, saved if the journal can no longer be trusted.
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    public void flush(TaskList tasks) throws IOException {
+        if (journalWriter.hasFailed()) {
+            save(tasks);
+            return;
+        }
+        journalWriter.flush();
+    }
+
+    /**
+     * Flushes pending journal records and stops the background group-commit thread.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    public void close() throws IOException {
+        journalWriter.close();
+    }
+
+    private void appendRecord(String record, TaskList tasks) throws IOException {
+        // After a failed load or journal write, only a whole snapshot restores what the list holds.
+        if (isSnapshotUnreadable || journalWriter.hasFailed()) {
+            save(tasks);
+            return;
+        }
+        if (!hasJournalHeader) {
+            ensureExists();
+            startJournal(checksumOf(filePath));
+        }
+
+        journalWriter.append(record);
+        journalRecords++;
+
+        if (journalRecords >= compactThreshold) {
+            save(tasks);
+        }
+    }
+
+    /**
+     * Moves the unreadable file and its journal to the first free name ending in {@value #CORRUPT_SUFFIX},
+     * keeping the journal next to its snapshot under the usual suffix, so the pair can still be read later.
+     *
+     * @param cause Why the file could not be loaded.
+     * @return The exception for {@link #load()} to throw, saying where the file went.
+     */
+    private IOException setAside(Exception cause) {
+        Path aside = Paths.get(filePath + CORRUPT_SUFFIX);
+        for (int i = 2; Files.exists(aside) || Files.exists(Paths.get(aside + JOURNAL_SUFFIX)); i++) {
+            aside = Paths.get(filePath + CORRUPT_SUFFIX + i);
+        }
+        try {
+            Files.move(filePath, aside);
+            if (Files.exists(journalPath)) {
+                Files.move(journalPath, Paths.get(aside + JOURNAL_SUFFIX));
+            }
+        } catch (IOException e) {
+            isSaveBlocked = true;
+            IOException failure = new IOException("Could not read " + filePath + " or move it aside", cause);
+            failure.addSuppressed(e);
+            return failure;
+        }
+        hasJournalHeader = false;
+        return new IOException("Could not read " + filePath + ", so it was moved to " + aside, cause);
+    }
+
+    /**
+     * Truncates the journal and stamps it with the checksum of the snapshot it extends.
+     */
+    private void startJournal(long snapshotChecksum) throws IOException {
+        journalWriter.reset(HEADER_RECORD + FIELD_SEPARATOR + Long.toHexString(snapshotChecksum));
+        journalRecords = 0;
+        hasJournalHeader = true;
+    }
+
+    /**
+     * Applies journal records to the freshly loaded snapshot.
+     * A journal whose header does not match the snapshot was already folded into it
+     * (the process stopped between writing the snapshot and resetting the journal) and is discarded.
+     * A torn trailing record from an interrupted append is ignored. Any other record that cannot be applied
+     * fails the load, as the records after it refer to list positions that would no longer match.
+     */
+    private void replayJournal(TaskList tasks, long snapshotChecksum) throws IOException {
+        List<String> records = readJournal(snapshotChecksum);
+        if (records == null) {
+            startJournal(snapshotChecksum);
+            return;
+        }
+
+        applyRecords(tasks, records);
+        journalRecords = records.size();
+        hasJournalHeader = true;
+    }
+
+    /**
+     * Returns the whole records of the journal, after its header, if the journal extends the snapshot with
+     * the given checksum.
+     *
+     * @return The records, or null if there is no journal or it belongs to an older snapshot.
+     */
+    private List<String> readJournal(long snapshotChecksum) throws IOException {
+        if (Files.notExists(journalPath)) {
+            return null;
+        }
+
+        String journal = Files.readString(journalPath, StandardCharsets.UTF_8);
+        List<String> records = new ArrayList<>(journal.lines().toList());
+        if (!records.isEmpty() && !journal.endsWith("\n")) {
+            records.remove(records.size() - 1);
+        }
+        String expectedHeader = HEADER_RECORD + FIELD_SEPARATOR + Long.toHexString(snapshotChecksum);
+        if (records.isEmpty() || !records.get(0).equals(expectedHeader)) {
+            return null;
+        }
+        return records.subList(1, records.size());
+    }
+
+    private void applyRecords(TaskList tasks, List<String> records) throws IOException {
+        for (int i = 0; i < records.size(); i++) {
+            // Line 1 is the header.
+            applyRecord(tasks, records.get(i), i + 2);
+        }
+    }
+
+    /**
+     * Applies one journal record through the task list, so that its indexes follow the replayed changes.
+     */
+    private void applyRecord(TaskList tasks, String record, int lineNumber) throws IOException {
+        String[] parts = record.split(FIELD_SEPARATOR, 2);
+        if (parts.length < 2) {
+            throw corruptRecord(lineNumber, null);
+        }
+
+        try {
+            switch (parts[0]) {
+            case ADD_RECORD:
+                tasks.add(Task.toLoadTask(parts[1]));
+                break;
+            case MARK_RECORD:
+                tasks.markDone(indexIn(tasks, parts[1], lineNumber));
+                break;
+            case UNMARK_RECORD:
+                tasks.unmarkDone(indexIn(tasks, parts[1], lineNumber));
+                break;
+            case DELETE_RECORD:
+                tasks.remove(indexIn(tasks, parts[1], lineNumber));
+                break;
+            default:
+                throw corruptRecord(lineNumber, null);
+            }
+        } catch (RuntimeException e) {
+            throw corruptRecord(lineNumber, e);
+        }
+    }
+
+    private int indexIn(TaskList tasks, String field, int lineNumber) throws IOException {
+        int index = Integer.parseInt(field);
+        if (index < 0 || index >= tasks.size()) {
+            throw corruptRecord(lineNumber, null);
+        }
+        return index;
+    }
+
+    private IOException corruptRecord(int lineNumber, Exception cause) {
+        return new IOException("Unreadable record on line " + lineNumber + " of " + journalPath, cause);
+    }
+
+    private static long checksumOf(Path path) throws IOException {
+        return new TaskFileReader().read(path, line -> { });
+    }
+
+    private static long checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
     }
 }
@@ -0,0 +1,52 @@
+package sillyrat.storage;
+
+import java.io.IOException;
+
+import sillyrat.task.TaskList;
+
+/**
+ * Converts a task data file between the text and binary snapshot formats.
+ * Usage: {@code StorageConverter <source> <target> <text|binary>}.
+ * The source and target may be the same file to convert it in place.
+ */
+public class StorageConverter {
+    private StorageConverter() {
+    }
+
+    /**
+     * Runs the converter from the command line.
+     *
+     * @param args The source path, target path and target format name.
+     */
+    public static void main(String[] args) {
+        if (args.length != 3) {
+            System.err.println("Usage: StorageConverter <source> <target> <text|binary>");
+            System.exit(1);
+        }
+
+        try {
+            int count = convert(args[0], args[1], StorageFormat.fromString(args[2]));
+            System.out.println("Converted " + count + " tasks to " + args[2].toLowerCase() + ": " + args[1]);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Conversion failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Reads the source file in whichever format it is stored, replays its journal,
+     * and writes the tasks to the target file in the given format. The source is left as it is,
+     * unless it is also the target.
+     *
+     * @param source The path of the data file to read.
+     * @param target The path of the data file to write.
+     * @param format The format to write the target in.
+     * @return The number of tasks converted.
+     * @throws IOException If the source does not exist, or an I/O error occurs while reading or writing.
+     */
+    public static int convert(String source, String target, StorageFormat format) throws IOException {
+        TaskList tasks = new Storage(source).read();
+        new Storage(target, format, Storage.DEFAULT_COMPACT_THRESHOLD).save(tasks);
+        return tasks.size();
+    }
+}
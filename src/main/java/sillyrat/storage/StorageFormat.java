@@ -0,0 +1,26 @@
+package sillyrat.storage;
+
+/**
+ * Enumerates the on-disk layouts a {@link Storage} snapshot can be written in.
+ */
+public enum StorageFormat {
+    /** One tab-separated line per task, as produced by {@code Task.toSaveString}. */
+    TEXT,
+    /** Versioned binary records with varint lengths and epoch-second timestamps. */
+    BINARY;
+
+    /**
+     * Converts a format name to a StorageFormat value, ignoring case.
+     *
+     * @param word The format name.
+     * @return The matching StorageFormat.
+     * @throws IllegalArgumentException If the word does not match any format.
+     */
+    public static StorageFormat fromString(String word) {
+        try {
+            return StorageFormat.valueOf(word.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown storage format: " + word);
+        }
+    }
+}
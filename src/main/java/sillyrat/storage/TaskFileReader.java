@@ -0,0 +1,91 @@
+package sillyrat.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Streams a line-oriented storage file through a fixed-size read buffer.
+ * Each line is decoded and handed to the caller as soon as its terminator is seen,
+ * so reading never keeps more than one line of raw bytes alive besides the buffer itself.
+ * A checksum of the raw file content is computed in the same pass.
+ */
+class TaskFileReader {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int INITIAL_LINE_CAPACITY = 256;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private byte[] line = new byte[INITIAL_LINE_CAPACITY];
+    private int lineLength;
+
+    /**
+     * Reads the file at the given path and passes every non-blank line to the consumer.
+     * A trailing carriage return is stripped so files written on Windows load the same way.
+     *
+     * @param path The file to read.
+     * @param lineConsumer The callback receiving each decoded line, in file order.
+     * @return The CRC32 checksum of the whole file content.
+     * @throws IOException If an I/O error occurs while reading.
+     */
+    long read(Path path, Consumer<String> lineConsumer) throws IOException {
+        CRC32 crc = new CRC32();
+        ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+        lineLength = 0;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            int n;
+            while ((n = channel.read(wrapped.clear())) != -1) {
+                crc.update(buffer, 0, n);
+                scanChunk(n, lineConsumer);
+            }
+        }
+        emitLine(lineConsumer);
+        return crc.getValue();
+    }
+
+    /**
+     * Splits the first {@code n} bytes of the read buffer at line terminators.
+     * Kept separate from the read loop so the JIT compiles it as an ordinary method early on.
+     */
+    private void scanChunk(int n, Consumer<String> lineConsumer) {
+        int start = 0;
+        for (int i = 0; i < n; i++) {
+            if (buffer[i] == '\n') {
+                appendToLine(start, i - start);
+                emitLine(lineConsumer);
+                start = i + 1;
+            }
+        }
+        appendToLine(start, n - start);
+    }
+
+    private void appendToLine(int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+        if (lineLength + length > line.length) {
+            line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+        }
+        System.arraycopy(buffer, offset, line, lineLength, length);
+        lineLength += length;
+    }
+
+    private void emitLine(Consumer<String> lineConsumer) {
+        int length = lineLength;
+        lineLength = 0;
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+
+        String decoded = new String(line, 0, length, StandardCharsets.UTF_8);
+        if (!decoded.isBlank()) {
+            lineConsumer.accept(decoded);
+        }
+    }
+}
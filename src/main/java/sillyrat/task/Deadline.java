@@ -17,7 +17,18 @@ public class Deadline extends Task {
      * @param by The date and time by which the task must be finished.
      */
     public Deadline(String description, LocalDateTime by) {
-        super(description);
+        this(description, by, false);
+    }
+
+    /**
+     * Initializes a new Deadline task that is already done or not.
+     *
+     * @param description The text describing the task.
+     * @param by The date and time by which the task must be finished.
+     * @param isDone True if the task is done.
+     */
+    public Deadline(String description, LocalDateTime by, boolean isDone) {
+        super(description, isDone);
         assert by != null : "Deadline time cannot be null";
         this.by = by;
     }
@@ -35,11 +46,12 @@ public class Deadline extends Task {
     public String toSaveString() {
         return "D" + FIELD_SEPARATOR + (isDone ? DONE_MARKER : NOT_DONE_MARKER)
                 + FIELD_SEPARATOR + description
-                + FIELD_SEPARATOR + DateTimeUtil.toStorageString(by);
+                + FIELD_SEPARATOR + DateTimeUtil.toStorageString(by)
+                + idField();
     }
 
     @Override
-    public String toString() {
+    protected String render() {
         return "[" + getTypeIcon() + "][" + getStatusIcon() + "] " + description
                 + " (by: " + DateTimeUtil.toDisplayString(by) + ")";
     }
@@ -19,7 +19,19 @@ public class Event extends Task {
      * @param to The end time of the event.
      */
     public Event(String description, LocalDateTime from, LocalDateTime to) {
-        super(description);
+        this(description, from, to, false);
+    }
+
+    /**
+     * Initializes a new Event task that is already done or not.
+     *
+     * @param description The text describing the task.
+     * @param from The start time of the event.
+     * @param to The end time of the event.
+     * @param isDone True if the task is done.
+     */
+    public Event(String description, LocalDateTime from, LocalDateTime to, boolean isDone) {
+        super(description, isDone);
         assert from != null : "Event start time cannot be null";
         assert to != null : "Event end time cannot be null";
         assert !to.isBefore(from) : "Event end time must not be before start time";
@@ -46,11 +58,12 @@ public class Event extends Task {
         return "E" + FIELD_SEPARATOR + (isDone ? DONE_MARKER : NOT_DONE_MARKER)
                 + FIELD_SEPARATOR + description
                 + FIELD_SEPARATOR + DateTimeUtil.toStorageString(from)
-                + FIELD_SEPARATOR + DateTimeUtil.toStorageString(to);
+                + FIELD_SEPARATOR + DateTimeUtil.toStorageString(to)
+                + idField();
     }
 
     @Override
-    public String toString() {
+    protected String render() {
         return "[" + getTypeIcon() + "][" + getStatusIcon() + "] " + description
                 + " (from: " + DateTimeUtil.toDisplayString(from)
                 + " to: " + DateTimeUtil.toDisplayString(to) + ")";
@@ -0,0 +1,227 @@
+package sillyrat.task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Interval tree over undone events, keyed by start time.
+ * Implemented as a treap where every node also records the latest end time in its subtree,
+ * so an overlap query can skip any subtree that ends before the queried range starts.
+ * Two events overlap when each starts before the other ends; events that merely touch do not clash.
+ */
+class EventIntervalTree {
+    private final Map<Event, Node> nodeByEvent = new IdentityHashMap<>();
+    private final Random priorities = new Random();
+    private Node root;
+    private long nextSeq;
+
+    /**
+     * Indexes the event if it is not done.
+     *
+     * @param event The event to index.
+     */
+    void add(Event event) {
+        if (event.isDone() || nodeByEvent.containsKey(event)) {
+            return;
+        }
+        Node node = new Node(event, nextSeq++, priorities.nextInt());
+        nodeByEvent.put(event, node);
+        root = insert(root, node);
+    }
+
+    /**
+     * Removes the event from the index if it is present.
+     *
+     * @param event The event to remove.
+     */
+    void remove(Event event) {
+        Node node = nodeByEvent.remove(event);
+        if (node != null) {
+            root = delete(root, node);
+        }
+    }
+
+    /**
+     * Returns the indexed events overlapping the given time range, earliest start first.
+     *
+     * @param from The start of the range.
+     * @param to The end of the range.
+     * @return The overlapping events.
+     */
+    List<Event> overlapping(LocalDateTime from, LocalDateTime to) {
+        List<Event> found = new ArrayList<>();
+        collectOverlapping(root, from, to, found);
+        return found;
+    }
+
+    /**
+     * Returns every clashing pair of indexed events.
+     * Each event maps to the events that start at or after it and overlap it, so each pair appears once.
+     * A sweep over the events in start order keeps the cost at O(n log n + k) for k clashes.
+     *
+     * @return The clashing events, grouped by the earlier-starting event of each pair.
+     */
+    Map<Event, List<Event>> conflicts() {
+        List<Node> ordered = new ArrayList<>(nodeByEvent.size());
+        collectInOrder(root, ordered);
+
+        Map<Event, List<Event>> clashes = new LinkedHashMap<>();
+        PriorityQueue<Node> active = new PriorityQueue<>((a, b) -> a.end().compareTo(b.end()));
+        for (Node node : ordered) {
+            while (!active.isEmpty() && !active.peek().end().isAfter(node.start())) {
+                active.poll();
+            }
+            for (Node earlier : active) {
+                if (node.start().isBefore(earlier.end()) && earlier.start().isBefore(node.end())) {
+                    clashes.computeIfAbsent(earlier.event, e -> new ArrayList<>()).add(node.event);
+                }
+            }
+            active.add(node);
+        }
+        return clashes;
+    }
+
+    private static void collectOverlapping(Node node, LocalDateTime from, LocalDateTime to, List<Event> found) {
+        if (node == null || !node.maxEnd.isAfter(from)) {
+            return;
+        }
+        collectOverlapping(node.left, from, to, found);
+        if (node.start().isBefore(to)) {
+            if (node.end().isAfter(from)) {
+                found.add(node.event);
+            }
+            collectOverlapping(node.right, from, to, found);
+        }
+    }
+
+    private static void collectInOrder(Node node, List<Node> ordered) {
+        if (node == null) {
+            return;
+        }
+        collectInOrder(node.left, ordered);
+        ordered.add(node);
+        collectInOrder(node.right, ordered);
+    }
+
+    private static Node insert(Node root, Node node) {
+        if (root == null) {
+            return node;
+        }
+        if (node.compareTo(root) < 0) {
+            root.left = insert(root.left, node);
+            if (root.left.priority > root.priority) {
+                root = rotateRight(root);
+            }
+        } else {
+            root.right = insert(root.right, node);
+            if (root.right.priority > root.priority) {
+                root = rotateLeft(root);
+            }
+        }
+        root.update();
+        return root;
+    }
+
+    private static Node delete(Node root, Node node) {
+        if (root == null) {
+            return null;
+        }
+        if (root == node) {
+            return merge(root.left, root.right);
+        }
+        if (node.compareTo(root) < 0) {
+            root.left = delete(root.left, node);
+        } else {
+            root.right = delete(root.right, node);
+        }
+        root.update();
+        return root;
+    }
+
+    /**
+     * Joins two treaps where every key in {@code left} is smaller than every key in {@code right}.
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    /**
+     * Tree node ordered by event start, with insertion order breaking ties.
+     */
+    private static class Node implements Comparable<Node> {
+        private final Event event;
+        private final long seq;
+        private final int priority;
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(Event event, long seq, int priority) {
+            this.event = event;
+            this.seq = seq;
+            this.priority = priority;
+            this.maxEnd = event.getTo();
+        }
+
+        LocalDateTime start() {
+            return event.getFrom();
+        }
+
+        LocalDateTime end() {
+            return event.getTo();
+        }
+
+        void update() {
+            maxEnd = end();
+            if (left != null && left.maxEnd.isAfter(maxEnd)) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(maxEnd)) {
+                maxEnd = right.maxEnd;
+            }
+        }
+
+        @Override
+        public int compareTo(Node other) {
+            int byStart = start().compareTo(other.start());
+            return byStart != 0 ? byStart : Long.compare(seq, other.seq);
+        }
+    }
+}
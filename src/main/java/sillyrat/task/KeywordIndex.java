@@ -0,0 +1,402 @@
+package sillyrat.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Inverted index from description words to the tasks that contain them.
+ * Every indexed task carries the sequence number the task list gave it, which increases along the list,
+ * so queries see each posting list as a sorted {@code int[]} in list order and reduce to sorted merges and
+ * intersections.
+ * Removing a task only marks its sequence number as dead, so that it costs O(1) per word instead of shifting
+ * every posting list it is in; dead entries are skipped when a posting list is copied for queries, and
+ * dropped from all posting lists at once when they outnumber the live ones.
+ * A query term matches any word it is a prefix of, so {@code boo} finds "book".
+ */
+class KeywordIndex {
+    private static final String OR_OPERATOR = "OR";
+    private static final String NOT_OPERATOR = "NOT";
+    private static final String NOT_PREFIX = "-";
+    private static final int[] NO_POSTINGS = new int[0];
+    /** Length ratio beyond which intersections gallop through the longer list instead of merging. */
+    private static final int GALLOP_RATIO = 16;
+    /** Number of dead posting entries below which they are never worth compacting away. */
+    private static final int MIN_COMPACT_ENTRIES = 1024;
+
+    private final NavigableMap<String, Postings> postingsByWord = new TreeMap<>();
+    private final Map<Task, Integer> seqByTask = new IdentityHashMap<>();
+    private Map<Integer, Task> taskBySeq = new HashMap<>();
+    /** Sequence numbers of removed tasks whose entries are still in the posting lists. */
+    private BitSet deadSeqs = new BitSet();
+    private int deadEntries;
+    private int liveEntries;
+    /** One more than the highest sequence number indexed so far. */
+    private int seqLimit;
+
+    /**
+     * Indexes a task under its sequence number. This is usually the highest so far, as tasks are appended,
+     * but a task that is put back by an undo keeps the number it had.
+     *
+     * @param task The task to index.
+     * @param seq The task's sequence number in the list.
+     */
+    void add(Task task, int seq) {
+        seqByTask.put(task, seq);
+        taskBySeq.put(seq, task);
+        seqLimit = Math.max(seqLimit, seq + 1);
+        Set<String> words = tokenize(task.getDescription());
+        liveEntries += words.size();
+        if (deadSeqs.get(seq)) {
+            // Put back before its dead entries were compacted away, so they only have to come back to life.
+            deadSeqs.clear(seq);
+            deadEntries -= words.size();
+            for (String word : words) {
+                postingsByWord.get(word).invalidate();
+            }
+            return;
+        }
+        for (String word : words) {
+            postingsByWord.computeIfAbsent(word, w -> new Postings()).add(seq);
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task The task to remove.
+     */
+    void remove(Task task) {
+        Integer seq = seqByTask.remove(task);
+        if (seq == null) {
+            return;
+        }
+        taskBySeq.remove(seq);
+        deadSeqs.set(seq);
+        Set<String> words = tokenize(task.getDescription());
+        for (String word : words) {
+            postingsByWord.get(word).invalidate();
+        }
+        liveEntries -= words.size();
+        deadEntries += words.size();
+        if (deadEntries >= MIN_COMPACT_ENTRIES && deadEntries > liveEntries) {
+            compact();
+        }
+    }
+
+    /**
+     * Drops the dead entries from every posting list, along with the lists left empty.
+     * Runs once dead entries outnumber live ones, so its cost is spread over the removals that made them.
+     */
+    private void compact() {
+        Iterator<Postings> it = postingsByWord.values().iterator();
+        while (it.hasNext()) {
+            Postings postings = it.next();
+            postings.compact(deadSeqs);
+            if (postings.isEmpty()) {
+                it.remove();
+            }
+        }
+        deadSeqs = new BitSet();
+        deadEntries = 0;
+        taskBySeq = new HashMap<>(taskBySeq);
+    }
+
+    /**
+     * Returns the tasks matching the query, in list order.
+     * Words are combined with AND; {@code OR} separates alternative groups of words,
+     * and a word preceded by {@code NOT} or written as {@code -word} excludes matching tasks.
+     *
+     * @param query The search query.
+     * @return The matching tasks.
+     */
+    List<Task> search(String query) {
+        int[] result = matches(query);
+        return tasksAt(result, 0, result.length);
+    }
+
+    /**
+     * Returns one page of the tasks matching the query, in list order.
+     * Only the tasks on the page are looked up; the other matches stay as sequence numbers.
+     *
+     * @param query The search query.
+     * @param offset The zero-based position of the first match to return.
+     * @param limit The largest number of matches to return.
+     * @return The page of matches, with the total number of matches.
+     */
+    TaskPage search(String query, int offset, int limit) {
+        int[] result = matches(query);
+        int from = Math.min(offset, result.length);
+        int to = (int) Math.min((long) from + limit, result.length);
+        return new TaskPage(tasksAt(result, from, to), from, result.length);
+    }
+
+    private int[] matches(String query) {
+        int[] result = NO_POSTINGS;
+        for (String clause : query.trim().split("\\s+" + OR_OPERATOR + "\\s+")) {
+            result = union(result, searchClause(clause));
+        }
+        return result;
+    }
+
+    private List<Task> tasksAt(int[] seqs, int from, int to) {
+        List<Task> found = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            found.add(taskBySeq.get(seqs[i]));
+        }
+        return found;
+    }
+
+    private int[] searchClause(String clause) {
+        List<int[]> required = new ArrayList<>();
+        List<int[]> excluded = new ArrayList<>();
+        boolean isNegated = false;
+
+        for (String term : clause.trim().split("\\s+")) {
+            if (term.equals(NOT_OPERATOR)) {
+                isNegated = true;
+                continue;
+            }
+            if (term.startsWith(NOT_PREFIX) && term.length() > NOT_PREFIX.length()) {
+                isNegated = true;
+                term = term.substring(NOT_PREFIX.length());
+            }
+            for (String word : tokenize(term)) {
+                (isNegated ? excluded : required).add(lookupPrefix(word));
+            }
+            isNegated = false;
+        }
+
+        if (required.isEmpty()) {
+            return NO_POSTINGS;
+        }
+        required.sort((a, b) -> Integer.compare(a.length, b.length));
+        int[] result = required.get(0);
+        for (int i = 1; i < required.size() && result.length > 0; i++) {
+            result = intersect(result, required.get(i));
+        }
+        for (int[] postings : excluded) {
+            result = subtract(result, postings);
+        }
+        return result;
+    }
+
+    private int[] lookupPrefix(String prefix) {
+        Collection<Postings> matches = postingsByWord
+                .subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+        if (matches.size() <= 2) {
+            int[] result = NO_POSTINGS;
+            for (Postings postings : matches) {
+                result = union(result, postings.toArray(deadSeqs));
+            }
+            return result;
+        }
+
+        // Many words share the prefix: merge through a bitmap instead of pairwise unions.
+        BitSet seqs = new BitSet(seqLimit);
+        for (Postings postings : matches) {
+            for (int seq : postings.toArray(deadSeqs)) {
+                seqs.set(seq);
+            }
+        }
+        int[] result = new int[seqs.cardinality()];
+        int n = 0;
+        for (int seq = seqs.nextSetBit(0); seq >= 0; seq = seqs.nextSetBit(seq + 1)) {
+            result[n++] = seq;
+        }
+        return result;
+    }
+
+    /**
+     * Splits text into maximal runs of letters and digits.
+     * Duplicates are dropped so a task appears at most once in each posting list.
+     */
+    private static Set<String> tokenize(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean isWordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (isWordChar && start < 0) {
+                start = i;
+            } else if (!isWordChar && start >= 0) {
+                words.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Intersects two sorted arrays, where {@code a} is the shorter one.
+     * Lists of similar length are merged linearly; a much longer {@code b} is galloped through.
+     */
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[a.length];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        if (b.length / GALLOP_RATIO <= a.length) {
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    out[n++] = a[i++];
+                    j++;
+                }
+            }
+            return Arrays.copyOf(out, n);
+        }
+
+        for (; i < a.length && j < b.length; i++) {
+            j = gallop(b, j, a[i]);
+            if (j < b.length && b[j] == a[i]) {
+                out[n++] = a[i];
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        if (a.length == 0) {
+            return b;
+        }
+        if (b.length == 0) {
+            return a;
+        }
+        int[] out = new int[a.length + b.length];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length || j < b.length) {
+            if (j == b.length || (i < a.length && a[i] < b[j])) {
+                out[n++] = a[i++];
+            } else if (i == a.length || b[j] < a[i]) {
+                out[n++] = b[j++];
+            } else {
+                out[n++] = a[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static int[] subtract(int[] a, int[] b) {
+        int[] out = new int[a.length];
+        int n = 0;
+        int j = 0;
+        for (int seq : a) {
+            j = gallop(b, j, seq);
+            if (j == b.length || b[j] != seq) {
+                out[n++] = seq;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /**
+     * Returns the first position at or after {@code from} whose value is not less than {@code key},
+     * probing exponentially before binary searching so skewed intersections stay cheap.
+     */
+    private static int gallop(int[] sorted, int from, int key) {
+        int step = 1;
+        int hi = from;
+        while (hi < sorted.length && sorted[hi] < key) {
+            from = hi + 1;
+            hi += step;
+            step <<= 1;
+        }
+        hi = Math.min(hi, sorted.length);
+        int pos = Arrays.binarySearch(sorted, from, hi, key);
+        return pos >= 0 ? pos : -pos - 1;
+    }
+
+    /**
+     * Growable array of task sequence numbers, which may include dead ones. Numbers are appended in increasing
+     * order, except for tasks put back by an undo; those are sorted into place by the next copy or compaction
+     * rather than shifting the array on each one.
+     */
+    private static class Postings {
+        private int[] seqs = new int[4];
+        private int size;
+        private boolean isSorted = true;
+        /**
+         * Sorted copy of the live entries handed out to queries; rebuilt only after the postings change. Volatile,
+         * as concurrent queries may both rebuild it, and each must see a fully copied array.
+         */
+        private volatile int[] view;
+
+        void add(int seq) {
+            if (size == seqs.length) {
+                seqs = Arrays.copyOf(seqs, size * 2);
+            }
+            isSorted &= size == 0 || seqs[size - 1] < seq;
+            seqs[size++] = seq;
+            view = null;
+        }
+
+        /**
+         * Notes that one of the entries died or came back to life.
+         */
+        void invalidate() {
+            view = null;
+        }
+
+        void compact(BitSet deadSeqs) {
+            size = copyLive(seqs, deadSeqs);
+            if (!isSorted) {
+                Arrays.sort(seqs, 0, size);
+                isSorted = true;
+            }
+            view = null;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int[] toArray(BitSet deadSeqs) {
+            int[] copy = view;
+            if (copy == null) {
+                int[] live = new int[size];
+                int n = copyLive(live, deadSeqs);
+                copy = n == size ? live : Arrays.copyOf(live, n);
+                if (!isSorted) {
+                    Arrays.sort(copy);
+                }
+                view = copy;
+            }
+            return copy;
+        }
+
+        /**
+         * Copies the entries that are not dead to the start of the given array, which may be {@code seqs} itself.
+         *
+         * @return The number of entries copied.
+         */
+        private int copyLive(int[] to, BitSet deadSeqs) {
+            if (deadSeqs.isEmpty()) {
+                System.arraycopy(seqs, 0, to, 0, size);
+                return size;
+            }
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (!deadSeqs.get(seqs[i])) {
+                    to[n++] = seqs[i];
+                }
+            }
+            return n;
+        }
+    }
+}
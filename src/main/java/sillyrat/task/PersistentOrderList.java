@@ -0,0 +1,266 @@
+package sillyrat.task;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Immutable list of elements ordered by sequence number, where each element's position is its rank.
+ * Implemented as a treap whose nodes record their subtree sizes, so positions turn into elements and
+ * sequence numbers into positions in O(log n). Changes copy only the nodes on the path they touch and
+ * return a new list that shares every other node with the old one, so keeping an earlier version
+ * costs O(log n) nodes rather than a copy of the list.
+ * Priorities are a hash of the sequence number, so the same elements always give the same tree.
+ *
+ * @param <T> The element type.
+ */
+final class PersistentOrderList<T> {
+    private static final PersistentOrderList<?> EMPTY = new PersistentOrderList<>(null);
+
+    private final Node<T> root;
+
+    private PersistentOrderList(Node<T> root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> PersistentOrderList<T> empty() {
+        return (PersistentOrderList<T>) EMPTY;
+    }
+
+    int size() {
+        return sizeOf(root);
+    }
+
+    /**
+     * Returns the element at the given position.
+     *
+     * @param index The zero-based position.
+     * @return The element.
+     */
+    T get(int index) {
+        return nodeAt(index).element;
+    }
+
+    /**
+     * Returns the sequence number of the element at the given position.
+     *
+     * @param index The zero-based position.
+     * @return The sequence number.
+     */
+    int seqAt(int index) {
+        return nodeAt(index).seq;
+    }
+
+    /**
+     * Returns the position of the element with the given sequence number.
+     *
+     * @param seq The sequence number.
+     * @return The zero-based position, or -1 if no element has that sequence number.
+     */
+    int indexOf(int seq) {
+        int index = 0;
+        Node<T> node = root;
+        while (node != null) {
+            if (seq < node.seq) {
+                node = node.left;
+            } else if (seq > node.seq) {
+                index += sizeOf(node.left) + 1;
+                node = node.right;
+            } else {
+                return index + sizeOf(node.left);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a list that also holds the given element, placed among the others by its sequence number.
+     *
+     * @param seq The sequence number, which no element of this list may have.
+     * @param element The element to add.
+     * @return The new list.
+     */
+    PersistentOrderList<T> with(int seq, T element) {
+        assert indexOf(seq) < 0 : "Sequence numbers must be unique";
+        return new PersistentOrderList<>(insert(root, new Node<>(seq, element, null, null)));
+    }
+
+    /**
+     * Returns a list without the element at the given position.
+     *
+     * @param index The zero-based position.
+     * @return The new list.
+     */
+    PersistentOrderList<T> without(int index) {
+        assert index >= 0 && index < size() : "Index must be within valid range";
+        return new PersistentOrderList<>(removeAt(root, index));
+    }
+
+    /**
+     * Returns the elements in order as a read-only list.
+     *
+     * @return A copy of the elements.
+     */
+    List<T> toList() {
+        return range(0, size());
+    }
+
+    /**
+     * Returns the elements at positions {@code from} up to but excluding {@code to} as a read-only list.
+     * Finding the first one costs O(log n); the rest are read off by an in-order walk.
+     *
+     * @param from The zero-based position of the first element.
+     * @param to The position just past the last element.
+     * @return The elements in order.
+     */
+    List<T> range(int from, int to) {
+        assert from >= 0 && from <= to && to <= size() : "Range must be within the list";
+        List<T> list = new ArrayList<>(to - from);
+        if (from == to) {
+            return Collections.unmodifiableList(list);
+        }
+
+        // Stack the path to the first element, keeping only the nodes the walk still has to visit.
+        Deque<Node<T>> path = new ArrayDeque<>();
+        Node<T> node = root;
+        int skip = from;
+        while (node != null) {
+            int leftSize = sizeOf(node.left);
+            if (skip < leftSize) {
+                path.push(node);
+                node = node.left;
+            } else if (skip > leftSize) {
+                skip -= leftSize + 1;
+                node = node.right;
+            } else {
+                path.push(node);
+                break;
+            }
+        }
+
+        while (list.size() < to - from) {
+            Node<T> next = path.pop();
+            list.add(next.element);
+            for (Node<T> n = next.right; n != null; n = n.left) {
+                path.push(n);
+            }
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    private Node<T> nodeAt(int index) {
+        assert index >= 0 && index < size() : "Index must be within valid range";
+        Node<T> node = root;
+        while (true) {
+            int leftSize = sizeOf(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private static <T> Node<T> insert(Node<T> node, Node<T> added) {
+        if (node == null) {
+            return added;
+        }
+        if (added.priority > node.priority) {
+            Node<T>[] halves = split(node, added.seq);
+            return added.withChildren(halves[0], halves[1]);
+        }
+        return added.seq < node.seq
+                ? node.withChildren(insert(node.left, added), node.right)
+                : node.withChildren(node.left, insert(node.right, added));
+    }
+
+    /**
+     * Splits a subtree into the nodes with sequence numbers below and above the given one.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Node<T>[] split(Node<T> node, int seq) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (seq < node.seq) {
+            Node<T>[] halves = split(node.left, seq);
+            halves[1] = node.withChildren(halves[1], node.right);
+            return halves;
+        }
+        Node<T>[] halves = split(node.right, seq);
+        halves[0] = node.withChildren(node.left, halves[0]);
+        return halves;
+    }
+
+    private static <T> Node<T> removeAt(Node<T> node, int index) {
+        int leftSize = sizeOf(node.left);
+        if (index < leftSize) {
+            return node.withChildren(removeAt(node.left, index), node.right);
+        }
+        if (index > leftSize) {
+            return node.withChildren(node.left, removeAt(node.right, index - leftSize - 1));
+        }
+        return merge(node.left, node.right);
+    }
+
+    /**
+     * Joins two subtrees where every sequence number in the left one is below every one in the right one.
+     */
+    private static <T> Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        return left.priority > right.priority
+                ? left.withChildren(left.left, merge(left.right, right))
+                : right.withChildren(merge(left, right.left), right.right);
+    }
+
+    private static int sizeOf(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Spreads consecutive sequence numbers over the whole int range, so that appending in order
+     * still gives a balanced tree (the finalizer of MurmurHash3).
+     */
+    private static int priorityOf(int seq) {
+        int h = seq;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static final class Node<T> {
+        private final int seq;
+        private final int priority;
+        private final T element;
+        private final Node<T> left;
+        private final Node<T> right;
+        private final int size;
+
+        Node(int seq, T element, Node<T> left, Node<T> right) {
+            this.seq = seq;
+            this.priority = priorityOf(seq);
+            this.element = element;
+            this.left = left;
+            this.right = right;
+            this.size = sizeOf(left) + sizeOf(right) + 1;
+        }
+
+        Node<T> withChildren(Node<T> newLeft, Node<T> newRight) {
+            return newLeft == left && newRight == right ? this : new Node<>(seq, element, newLeft, newRight);
+        }
+    }
+}
@@ -7,34 +7,75 @@ import sillyrat.common.DateTimeUtil;
  * This class serves as a base class for other task types.
  */
 public class Task {
+    /** ID of a task that has not been added to a {@link TaskList} yet. */
+    public static final long NO_ID = 0;
+
     protected static final String FIELD_SEPARATOR = "\t";
     protected static final String DONE_MARKER = "1";
     protected static final String NOT_DONE_MARKER = "0";
+    /** Marks the optional trailing field holding the task ID in a save string. */
+    protected static final String ID_MARKER = "#";
 
     protected String description;
     protected boolean isDone;
+    private long id = NO_ID;
+    /** Cached result of {@link #render()}; cleared whenever the done status changes. */
+    private String rendered;
 
     /**
      * Initializes a new Task with a description.
      * @param description The text describing the task.
      */
     public Task(String description) {
+        this(description, false);
+    }
+
+    /**
+     * Initializes a new Task with a description that is already done or not, as when it is restored from storage.
+     *
+     * @param description The text describing the task.
+     * @param isDone True if the task is done.
+     */
+    public Task(String description, boolean isDone) {
         this.description = description;
-        this.isDone = false;
+        this.isDone = isDone;
     }
 
-    public void markDone() {
+    /**
+     * Marks this task as done. Only {@link TaskList} may call this on a task in a list, as its indexes
+     * of undone tasks have to follow.
+     */
+    void markDone() {
         isDone = true;
+        rendered = null;
     }
 
-    public void unmarkDone() {
+    /**
+     * Marks this task as not done. Only {@link TaskList} may call this on a task in a list.
+     */
+    void unmarkDone() {
         isDone = false;
+        rendered = null;
     }
 
     public boolean isDone() {
         return isDone;
     }
 
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Sets the persistent ID of this task. IDs are handed out by {@link TaskList} and restored by storage.
+     *
+     * @param id The ID, or {@link #NO_ID} to leave it unassigned.
+     */
+    public void setId(long id) {
+        assert id >= NO_ID : "Task ID must not be negative";
+        this.id = id;
+    }
+
     protected String getStatusIcon() {
         return isDone ? "X" : " ";
     }
@@ -70,6 +111,11 @@ public class Task {
             task.markDone();
         }
 
+        String last = parts[parts.length - 1];
+        if (parts.length > fieldCount(type) && last.startsWith(ID_MARKER)) {
+            task.setId(parseId(last.substring(ID_MARKER.length())));
+        }
+
         return task;
     }
 
@@ -91,17 +137,72 @@ public class Task {
         }
     }
 
+    /**
+     * Returns the number of fields a save line of the given type has before the optional ID.
+     */
+    private static int fieldCount(String type) {
+        switch (type) {
+        case "D":
+            return 4;
+        case "E":
+            return 5;
+        default:
+            return 3;
+        }
+    }
+
+    private static long parseId(String text) {
+        try {
+            long id = Long.parseLong(text);
+            return id > NO_ID ? id : NO_ID;
+        } catch (NumberFormatException e) {
+            // A damaged ID is dropped; the task list assigns a fresh one.
+            return NO_ID;
+        }
+    }
+
+    /**
+     * Returns the trailing ID field for {@link #toSaveString()}, or an empty string if no ID is assigned.
+     *
+     * @return The ID field, including its leading separator.
+     */
+    protected String idField() {
+        return id == NO_ID ? "" : FIELD_SEPARATOR + ID_MARKER + id;
+    }
+
     public String getDescription() {
         return description;
     }
 
     public String toSaveString() {
         return getTypeIcon() + FIELD_SEPARATOR + (isDone ? DONE_MARKER : NOT_DONE_MARKER)
-                + FIELD_SEPARATOR + description;
+                + FIELD_SEPARATOR + description + idField();
     }
 
+    /**
+     * Returns the display form of this task.
+     * The text is built once and reused until the task is marked or unmarked, so listing
+     * the same tasks again does not format their dates again.
+     *
+     * @return The display form.
+     */
     @Override
     public String toString() {
+        String text = rendered;
+        if (text == null) {
+            text = render();
+            rendered = text;
+        }
+        return text;
+    }
+
+    /**
+     * Builds the display form of this task. Subclasses add their own details here rather than in
+     * {@link #toString()}, which caches the result.
+     *
+     * @return The display form.
+     */
+    protected String render() {
         return "[" + getTypeIcon() + "][" + getStatusIcon() + "] " + description;
     }
 }
@@ -0,0 +1,78 @@
+package sillyrat.task;
+
+/**
+ * Records one change to a {@link TaskList}, so that it can be undone and redone.
+ * Holds the list's order before and after the change, which share all but O(log n) of their nodes.
+ */
+public final class TaskChange {
+    /**
+     * The kinds of change a task list records.
+     */
+    public enum Kind {
+        ADD, DELETE, MARK, UNMARK;
+
+        /**
+         * Returns the kind of change that reverses this one.
+         *
+         * @return The reverse kind.
+         */
+        public Kind inverse() {
+            switch (this) {
+            case ADD:
+                return DELETE;
+            case DELETE:
+                return ADD;
+            case MARK:
+                return UNMARK;
+            default:
+                return MARK;
+            }
+        }
+    }
+
+    private final Kind kind;
+    private final Task task;
+    private final int index;
+    private final int seq;
+    private final PersistentOrderList<Task> before;
+    private final PersistentOrderList<Task> after;
+
+    TaskChange(Kind kind, Task task, int index, int seq, PersistentOrderList<Task> before,
+            PersistentOrderList<Task> after) {
+        this.kind = kind;
+        this.task = task;
+        this.index = index;
+        this.seq = seq;
+        this.before = before;
+        this.after = after;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    /**
+     * Returns the position of the task when the change was made: where it was added, removed from, or marked.
+     *
+     * @return The zero-based position.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    int getSeq() {
+        return seq;
+    }
+
+    PersistentOrderList<Task> getBefore() {
+        return before;
+    }
+
+    PersistentOrderList<Task> getAfter() {
+        return after;
+    }
+}
@@ -1,51 +1,168 @@
 package sillyrat.task;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Represents a list of tasks and provides operations to add, remove, search,
  * and retrieve upcoming tasks.
+ * A task list is not thread-safe by itself. When it is shared between threads, changes must come from one
+ * writer at a time, and readers must be kept out while a change is being made, as {@code SillyRat} does;
+ * queries only read, so any number of them may run at once.
+ * Each change can be undone and redone, up to the history depth set by {@link #setHistoryDepth(int)}.
+ * The order of the tasks is kept in a persistent tree, so each version in the history shares all but
+ * O(log n) nodes with the next; the other indexes are brought back in line by reversing the change.
  * The {@link #getUpcoming(int)} method was developed with the assistance of AI (ChatGPT, Claude).
  * Javadoc comments in this class were written with the assistance of AI (ChatGPT, Claude).
  */
 public class TaskList {
-    private final ArrayList<Task> tasks;
+    private final Map<Long, Integer> seqById = new HashMap<>();
+    private final KeywordIndex keywordIndex = new KeywordIndex();
+    private final TimeIndex timeIndex = new TimeIndex();
+    private final EventIntervalTree eventTree = new EventIntervalTree();
+    private final Deque<TaskChange> undoHistory = new ArrayDeque<>();
+    private final Deque<TaskChange> redoHistory = new ArrayDeque<>();
+    /** Tasks in list order, keyed by a sequence number that increases with each addition. */
+    private PersistentOrderList<Task> tasks = PersistentOrderList.empty();
+    private long nextId = Task.NO_ID + 1;
+    private int nextSeq;
+    private int historyDepth;
 
     /**
      * Constructs an empty task list.
      */
     public TaskList() {
-        tasks = new ArrayList<>();
     }
 
     /**
      * Constructs a task list initialized with the given list of tasks.
      *
+     * Tasks keep the IDs they were saved with; tasks without one, or whose ID is already taken, get a new one.
+     *
      * @param initialTasks The initial tasks to populate the list with.
      */
     public TaskList(List<Task> initialTasks) {
-        tasks = new ArrayList<>(initialTasks);
+        for (Task task : initialTasks) {
+            nextId = Math.max(nextId, task.getId() + 1);
+        }
+        for (Task task : initialTasks) {
+            add(task);
+        }
     }
 
     /**
-     * Adds a task to the list.
+     * Adds a task to the end of the list, assigning it an ID if it does not have one yet.
      * @param task The task to add.
      */
     public void add(Task task) {
         assert task != null : "Cannot add null task to list";
-        tasks.add(task);
+        if (task.getId() == Task.NO_ID || seqById.containsKey(task.getId())) {
+            task.setId(nextId++);
+        }
+        nextId = Math.max(nextId, task.getId() + 1);
+        int seq = nextSeq++;
+        PersistentOrderList<Task> before = tasks;
+        tasks = tasks.with(seq, task);
+        seqById.put(task.getId(), seq);
+        indexTask(task, seq);
+        record(new TaskChange(TaskChange.Kind.ADD, task, tasks.size() - 1, seq, before, tasks));
     }
 
     /**
      * Removes the task at the given index.
+     * The tasks after it move up one position but keep their IDs.
+     *
      * @param index The index of the task to remove.
      * @return The removed task.
      */
     public Task remove(int index) {
         assert index >= 0 && index < tasks.size() : "Index must be within valid range";
-        return tasks.remove(index);
+        Task removed = tasks.get(index);
+        int seq = tasks.seqAt(index);
+        PersistentOrderList<Task> before = tasks;
+        tasks = tasks.without(index);
+        seqById.remove(removed.getId());
+        unindexTask(removed);
+        record(new TaskChange(TaskChange.Kind.DELETE, removed, index, seq, before, tasks));
+        return removed;
+    }
+
+    /**
+     * Returns the current index of the task with the given ID.
+     *
+     * @param id The task ID.
+     * @return The zero-based index, or -1 if no task has that ID.
+     */
+    public int indexOfId(long id) {
+        Integer seq = seqById.get(id);
+        return seq == null ? -1 : tasks.indexOf(seq);
+    }
+
+    private void indexTask(Task task, int seq) {
+        keywordIndex.add(task, seq);
+        indexTime(task);
+    }
+
+    /**
+     * Adds the task to the indexes that only hold undone tasks.
+     */
+    private void indexTime(Task task) {
+        timeIndex.add(task);
+        if (task instanceof Event) {
+            eventTree.add((Event) task);
+        }
+    }
+
+    /**
+     * Removes the task from the indexes that only hold undone tasks.
+     */
+    private void unindexTime(Task task) {
+        timeIndex.remove(task);
+        if (task instanceof Event) {
+            eventTree.remove((Event) task);
+        }
+    }
+
+    private void unindexTask(Task task) {
+        keywordIndex.remove(task);
+        unindexTime(task);
+    }
+
+    /**
+     * Marks the task at the given index as done.
+     * Tasks must be marked through the list so that its indexes stay current.
+     *
+     * @param index The index of the task to mark.
+     * @return The marked task.
+     */
+    public Task markDone(int index) {
+        Task task = get(index);
+        if (!task.isDone()) {
+            task.markDone();
+            unindexTime(task);
+            record(new TaskChange(TaskChange.Kind.MARK, task, index, tasks.seqAt(index), tasks, tasks));
+        }
+        return task;
+    }
+
+    /**
+     * Marks the task at the given index as not done.
+     *
+     * @param index The index of the task to unmark.
+     * @return The unmarked task.
+     */
+    public Task unmarkDone(int index) {
+        Task task = get(index);
+        if (task.isDone()) {
+            task.unmarkDone();
+            indexTime(task);
+            record(new TaskChange(TaskChange.Kind.UNMARK, task, index, tasks.seqAt(index), tasks, tasks));
+        }
+        return task;
     }
 
     public Task get(int index) {
@@ -58,56 +175,198 @@ public class TaskList {
     }
 
     public boolean isEmpty() {
-        return tasks.isEmpty();
+        return tasks.size() == 0;
+    }
+
+    /**
+     * Sets how many of the latest changes can be undone. Changes made before the depth is set are not kept;
+     * lowering it forgets the oldest changes beyond the new depth.
+     *
+     * @param depth The number of changes, or 0 to keep no history.
+     */
+    public void setHistoryDepth(int depth) {
+        assert depth >= 0 : "History depth must not be negative";
+        historyDepth = depth;
+        while (undoHistory.size() > depth) {
+            undoHistory.removeFirst();
+        }
+        while (redoHistory.size() > depth) {
+            redoHistory.removeFirst();
+        }
+    }
+
+    /**
+     * Undoes the latest change that has not been undone yet.
+     *
+     * @return The change that was undone, or null if there is none.
+     */
+    public TaskChange undo() {
+        TaskChange change = undoHistory.pollLast();
+        if (change == null) {
+            return null;
+        }
+        Task task = change.getTask();
+        tasks = change.getBefore();
+        switch (change.getKind()) {
+        case ADD:
+            seqById.remove(task.getId());
+            unindexTask(task);
+            break;
+        case DELETE:
+            seqById.put(task.getId(), change.getSeq());
+            indexTask(task, change.getSeq());
+            break;
+        case MARK:
+            task.unmarkDone();
+            indexTime(task);
+            break;
+        case UNMARK:
+            task.markDone();
+            unindexTime(task);
+            break;
+        default:
+            throw new AssertionError("Unknown change: " + change.getKind());
+        }
+        redoHistory.addLast(change);
+        return change;
+    }
+
+    /**
+     * Makes again the latest change that was undone, as long as nothing was changed since.
+     *
+     * @return The change that was redone, or null if there is none.
+     */
+    public TaskChange redo() {
+        TaskChange change = redoHistory.pollLast();
+        if (change == null) {
+            return null;
+        }
+        Task task = change.getTask();
+        tasks = change.getAfter();
+        switch (change.getKind()) {
+        case ADD:
+            seqById.put(task.getId(), change.getSeq());
+            indexTask(task, change.getSeq());
+            break;
+        case DELETE:
+            seqById.remove(task.getId());
+            unindexTask(task);
+            break;
+        case MARK:
+            task.markDone();
+            unindexTime(task);
+            break;
+        case UNMARK:
+            task.unmarkDone();
+            indexTime(task);
+            break;
+        default:
+            throw new AssertionError("Unknown change: " + change.getKind());
+        }
+        undoHistory.addLast(change);
+        return change;
     }
 
     /**
-     * Returns the list of tasks.
+     * Keeps a change that was just made so that it can be undone, forgetting any undone changes,
+     * which can no longer be redone, and the oldest change if the history is full.
+     */
+    private void record(TaskChange change) {
+        if (historyDepth == 0) {
+            return;
+        }
+        redoHistory.clear();
+        undoHistory.addLast(change);
+        if (undoHistory.size() > historyDepth) {
+            undoHistory.removeFirst();
+        }
+    }
+
+    /**
+     * Returns the tasks in list order.
+     * The returned list is a read-only snapshot; later changes to this task list are not reflected in it.
      * @return The list of tasks.
      */
     public List<Task> asList() {
-        return tasks;
+        return tasks.toList();
+    }
+
+    /**
+     * Returns one page of the tasks in list order.
+     * Only the tasks on the page are copied out, so the cost does not grow with the length of the list.
+     *
+     * @param offset The zero-based position of the first task to return.
+     * @param limit The largest number of tasks to return.
+     * @return The page of tasks, which is empty if the offset is past the end of the list.
+     */
+    public TaskPage page(int offset, int limit) {
+        assert offset >= 0 && limit >= 0 : "Offset and limit must not be negative";
+        int from = Math.min(offset, tasks.size());
+        int to = (int) Math.min((long) from + limit, tasks.size());
+        return new TaskPage(tasks.range(from, to), from, tasks.size());
     }
 
     /**
-     * Finds tasks containing the given keywords in their descriptions.
+     * Finds tasks whose descriptions contain the given keywords.
+     * Each keyword matches words it is a prefix of. Keywords must all match, unless
+     * separated by {@code OR}; a keyword written as {@code -word} or {@code NOT word} must not match.
+     * Lookups go through an inverted index instead of scanning every description.
+     *
      * @param keywords The keywords to search for.
-     * @return A list of tasks matching the keywords.
+     * @return A list of tasks matching the keywords, in list order.
      */
     public List<Task> find(String keywords) {
-        return tasks.stream()
-                .filter(task -> task.getDescription().contains(keywords))
-                .toList();
+        return keywordIndex.search(keywords);
+    }
+
+    /**
+     * Returns one page of the tasks matching the given keywords, as found by {@link #find(String)}.
+     *
+     * @param keywords The keywords to search for.
+     * @param offset The zero-based position of the first match to return.
+     * @param limit The largest number of matches to return.
+     * @return The page of matches, which is empty if the offset is past the last match.
+     */
+    public TaskPage find(String keywords, int offset, int limit) {
+        assert offset >= 0 && limit >= 0 : "Offset and limit must not be negative";
+        return keywordIndex.search(keywords, offset, limit);
     }
 
     /**
      * Returns undone deadlines and events that are due or starting within
      * the given number of days from now.
      * Completed tasks are excluded from the results.
+     * Results come from a time-ordered index, so only the matching tasks are visited.
      * This method was developed with the assistance of AI (ChatGPT, Claude).
      *
      * @param days The number of days ahead to look for upcoming tasks.
-     * @return A list of upcoming undone tasks in their original list order.
+     * @return A list of upcoming undone tasks, earliest first.
      */
     public List<Task> getUpcoming(int days) {
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime cutoff = now.plusDays(days);
 
-        return tasks.stream()
-                .filter(task -> !task.isDone())
-                .filter(task -> isUpcoming(task, now, cutoff))
-                .toList();
+        return timeIndex.between(now, cutoff);
     }
 
-    private static boolean isUpcoming(Task task, LocalDateTime now, LocalDateTime cutoff) {
-        if (task instanceof Deadline) {
-            LocalDateTime by = ((Deadline) task).getBy();
-            return !by.isBefore(now) && !by.isAfter(cutoff);
-        }
-        if (task instanceof Event) {
-            LocalDateTime from = ((Event) task).getFrom();
-            return !from.isBefore(now) && !from.isAfter(cutoff);
-        }
-        return false;
+    /**
+     * Returns the undone events, other than the given one, whose time overlaps it.
+     *
+     * @param event The event to check.
+     * @return The clashing events, earliest start first.
+     */
+    public List<Event> getClashes(Event event) {
+        List<Event> clashes = eventTree.overlapping(event.getFrom(), event.getTo());
+        clashes.removeIf(other -> other == event);
+        return clashes;
+    }
+
+    /**
+     * Returns every pair of undone events whose times overlap.
+     *
+     * @return Each clashing event mapped to the later-starting events it overlaps, earliest first.
+     */
+    public Map<Event, List<Event>> getConflicts() {
+        return eventTree.conflicts();
     }
 }
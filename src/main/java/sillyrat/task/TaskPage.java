@@ -0,0 +1,37 @@
+package sillyrat.task;
+
+import java.util.List;
+
+/**
+ * Represents one page of a task listing: the tasks on it and where they sit among all results.
+ */
+public class TaskPage {
+    private final List<Task> tasks;
+    private final int offset;
+    private final int total;
+
+    /**
+     * Constructs a new TaskPage.
+     *
+     * @param tasks The tasks on the page, in listing order.
+     * @param offset The zero-based position of the first task among all results.
+     * @param total The number of results across all pages.
+     */
+    public TaskPage(List<Task> tasks, int offset, int total) {
+        this.tasks = tasks;
+        this.offset = offset;
+        this.total = total;
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+}
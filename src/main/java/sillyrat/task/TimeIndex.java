@@ -0,0 +1,78 @@
+package sillyrat.task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Orders undone deadlines and events by the time they are due or start.
+ * Done tasks are kept out of the index entirely, so a range query only touches the tasks it returns.
+ * Tasks sharing the same time keep the order in which they were indexed.
+ */
+class TimeIndex {
+    private final NavigableMap<LocalDateTime, List<Task>> tasksByTime = new TreeMap<>();
+
+    /**
+     * Indexes the task if it is an undone deadline or event.
+     *
+     * @param task The task to index.
+     */
+    void add(Task task) {
+        LocalDateTime key = keyOf(task);
+        if (key == null || task.isDone()) {
+            return;
+        }
+        tasksByTime.computeIfAbsent(key, k -> new ArrayList<>(1)).add(task);
+    }
+
+    /**
+     * Removes the task from the index if it is present.
+     *
+     * @param task The task to remove.
+     */
+    void remove(Task task) {
+        LocalDateTime key = keyOf(task);
+        if (key == null) {
+            return;
+        }
+        List<Task> bucket = tasksByTime.get(key);
+        if (bucket == null) {
+            return;
+        }
+        bucket.removeIf(t -> t == task);
+        if (bucket.isEmpty()) {
+            tasksByTime.remove(key);
+        }
+    }
+
+    /**
+     * Returns undone tasks whose time falls within the given range, both ends inclusive, earliest first.
+     *
+     * @param from The start of the range.
+     * @param to The end of the range.
+     * @return The matching tasks.
+     */
+    List<Task> between(LocalDateTime from, LocalDateTime to) {
+        List<Task> found = new ArrayList<>();
+        for (List<Task> bucket : tasksByTime.subMap(from, true, to, true).values()) {
+            for (Task task : bucket) {
+                if (!task.isDone()) {
+                    found.add(task);
+                }
+            }
+        }
+        return found;
+    }
+
+    private static LocalDateTime keyOf(Task task) {
+        if (task instanceof Deadline) {
+            return ((Deadline) task).getBy();
+        }
+        if (task instanceof Event) {
+            return ((Event) task).getFrom();
+        }
+        return null;
+    }
+}
@@ -14,6 +14,16 @@ public class Todo extends Task {
         super(description);
     }
 
+    /**
+     * Constructs a new Todo task that is already done or not.
+     *
+     * @param description The text describing the task.
+     * @param isDone True if the task is done.
+     */
+    public Todo(String description, boolean isDone) {
+        super(description, isDone);
+    }
+
     @Override
     protected String getTypeIcon() {
         return "T";
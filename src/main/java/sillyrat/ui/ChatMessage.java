@@ -0,0 +1,28 @@
+package sillyrat.ui;
+
+/**
+ * Represents one message in the chat transcript.
+ */
+class ChatMessage {
+    private final String text;
+    private final boolean isFromUser;
+
+    /**
+     * Constructs a new ChatMessage.
+     *
+     * @param text The text of the message.
+     * @param isFromUser True if the user sent the message, false if SillyRat did.
+     */
+    ChatMessage(String text, boolean isFromUser) {
+        this.text = text;
+        this.isFromUser = isFromUser;
+    }
+
+    String getText() {
+        return text;
+    }
+
+    boolean isFromUser() {
+        return isFromUser;
+    }
+}
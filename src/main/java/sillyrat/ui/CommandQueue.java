@@ -0,0 +1,66 @@
+package sillyrat.ui;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import sillyrat.SillyRat;
+
+/**
+ * Runs chat commands on a background thread so that slow ones, such as a large save or search,
+ * do not freeze the window. Commands run one at a time, in the order they were submitted, on a single
+ * worker thread; SillyRat is only ever called from that thread, so it needs no locking.
+ * Each reply is handed to the reply executor, which for the GUI is the JavaFX application thread.
+ * Every command gets exactly one reply, even if it fails, so callers can count the commands still running.
+ */
+class CommandQueue implements AutoCloseable {
+    /** Reply delivered for a command that failed with an exception SillyRat did not handle itself. */
+    static final String ERROR_REPLY = "Oops... I tripped over my own tail. Shall we try again?";
+
+    private final SillyRat sillyRat;
+    private final Executor replyExecutor;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sillyrat-command");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs a new CommandQueue.
+     *
+     * @param sillyRat The chatbot that executes the commands.
+     * @param replyExecutor The executor that replies are delivered on.
+     */
+    CommandQueue(SillyRat sillyRat, Executor replyExecutor) {
+        this.sillyRat = sillyRat;
+        this.replyExecutor = replyExecutor;
+    }
+
+    /**
+     * Queues a command behind any that are still running.
+     *
+     * @param input The raw user input.
+     * @param onReply Called on the reply executor with SillyRat's response, or with {@link #ERROR_REPLY}
+     *     if the command failed.
+     */
+    void submit(String input, Consumer<String> onReply) {
+        worker.execute(() -> {
+            String reply = ERROR_REPLY;
+            try {
+                reply = sillyRat.getResponse(input);
+            } finally {
+                String delivered = reply;
+                replyExecutor.execute(() -> onReply.accept(delivered));
+            }
+        });
+    }
+
+    /**
+     * Stops accepting commands. Commands already queued still run and deliver their replies.
+     */
+    @Override
+    public void close() {
+        worker.shutdown();
+    }
+}
@@ -28,6 +28,7 @@ public class DialogBox extends HBox {
     private ImageView displayPicture;
     @FXML
     private Region spacer;
+    private boolean isFlipped;
 
     private DialogBox(String text, Image img) {
         try {
@@ -50,13 +51,29 @@ public class DialogBox extends HBox {
     }
 
     /**
-     * Flips the dialog box such that the ImageView is on the left and text on the right.
+     * Flips the dialog box such that the ImageView moves to the other side of the text.
      */
     private void flip() {
         ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
         Collections.reverse(tmp);
         getChildren().setAll(tmp);
-        setAlignment(Pos.TOP_LEFT);
+        isFlipped = !isFlipped;
+        setAlignment(isFlipped ? Pos.TOP_LEFT : Pos.TOP_RIGHT);
+    }
+
+    /**
+     * Replaces the content of this dialog box, so that one box can show different messages in turn.
+     *
+     * @param text The text to display in the dialog.
+     * @param img The image representing the speaker.
+     * @param isFromUser True to put the image on the right, as for user messages.
+     */
+    void setMessage(String text, Image img, boolean isFromUser) {
+        dialog.setText(text);
+        displayPicture.setImage(img);
+        if (isFlipped == isFromUser) {
+            flip();
+        }
     }
 
     /**
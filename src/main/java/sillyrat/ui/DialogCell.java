@@ -0,0 +1,55 @@
+package sillyrat.ui;
+
+import java.util.function.IntConsumer;
+
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.image.Image;
+
+/**
+ * List cell that shows a chat message in a {@link DialogBox}.
+ * The list view reuses its cells as the transcript scrolls, so only the messages on screen
+ * ever have a dialog box, however long the chat grows.
+ */
+class DialogCell extends ListCell<ChatMessage> {
+    /** Room left for the vertical scroll bar, so that dialog boxes never need a horizontal one. */
+    private static final double SCROLL_BAR_ALLOWANCE = 20;
+
+    private final Image userImage;
+    private final Image ratImage;
+    private final IntConsumer onShown;
+    private DialogBox box;
+
+    /**
+     * Constructs a new DialogCell.
+     *
+     * @param listView The list view the cell belongs to.
+     * @param userImage The image shown next to user messages.
+     * @param ratImage The image shown next to SillyRat messages.
+     * @param onShown Called with the index of each message the cell starts showing.
+     */
+    DialogCell(ListView<ChatMessage> listView, Image userImage, Image ratImage, IntConsumer onShown) {
+        this.userImage = userImage;
+        this.ratImage = ratImage;
+        this.onShown = onShown;
+        setStyle("-fx-background-color: transparent; -fx-padding: 0;");
+        prefWidthProperty().bind(listView.widthProperty().subtract(SCROLL_BAR_ALLOWANCE));
+    }
+
+    @Override
+    protected void updateItem(ChatMessage message, boolean isEmpty) {
+        super.updateItem(message, isEmpty);
+        if (isEmpty || message == null) {
+            setGraphic(null);
+            return;
+        }
+
+        if (box == null) {
+            box = DialogBox.getUserDialog("", userImage);
+            box.prefWidthProperty().bind(widthProperty());
+        }
+        box.setMessage(message.getText(), message.isFromUser() ? userImage : ratImage, message.isFromUser());
+        setGraphic(box);
+        onShown.accept(getIndex());
+    }
+}
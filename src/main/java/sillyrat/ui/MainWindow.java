@@ -1,47 +1,80 @@
 package sillyrat.ui;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.Objects;
 
 import javafx.animation.PauseTransition;
 import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
 import javafx.util.Duration;
 import sillyrat.SillyRat;
 
 /**
  * Controller for the main GUI.
+ * The transcript is a list view over a window of at most {@value #WINDOW_SIZE} recent messages.
+ * Every message is also written to a {@link TranscriptHistory}, from which older ones are paged
+ * back in when the user scrolls to the top of the window.
+ * Commands run on a {@link CommandQueue} so the window stays responsive while they do, and a busy
+ * indicator appears when a command has been running for longer than {@link #BUSY_THRESHOLD}.
  * Javadoc comments in this class were written with the assistance of AI (ChatGPT, Claude).
  */
 public class MainWindow extends AnchorPane {
+    /** Largest number of messages held in the transcript at once. */
+    private static final int WINDOW_SIZE = 200;
+    /** Number of messages paged in when scrolling past either end of the window. */
+    private static final int PAGE_SIZE = 50;
+    /** How long a command may run before the busy indicator is shown. */
+    private static final Duration BUSY_THRESHOLD = Duration.millis(300);
+
     @FXML
-    private ScrollPane scrollPane;
-    @FXML
-    private VBox dialogContainer;
+    private ListView<ChatMessage> transcript;
     @FXML
     private TextField userInput;
     @FXML
     private Button sendButton;
+    @FXML
+    private ProgressIndicator busyIndicator;
 
     private SillyRat sillyRat;
+    private CommandQueue commands;
+    private PauseTransition busyDelay;
+    /** Number of submitted commands whose reply has not been shown yet. */
+    private int pendingCommands;
 
     private final Image userImage = new Image(Objects.requireNonNull(this.getClass()
             .getResourceAsStream("/images/CatBoss.png")));
     private final Image ratImage = new Image(Objects.requireNonNull(this.getClass()
             .getResourceAsStream("/images/SillyRat.png")));
 
+    private final ObservableList<ChatMessage> shown = FXCollections.observableArrayList();
+    /** Every message of the session, or null if it could not be opened, in which case old messages are dropped. */
+    private TranscriptHistory history;
+    /** Position in the history of the first message shown. */
+    private int shownFrom;
+
     @FXML
     public void initialize() {
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
+        transcript.setItems(shown);
+        transcript.setFocusTraversable(false);
+        transcript.setCellFactory(listView -> new DialogCell(listView, userImage, ratImage, this::handleCellShown));
+        busyIndicator.setVisible(false);
+        busyDelay = new PauseTransition(BUSY_THRESHOLD);
+        busyDelay.setOnFinished(event -> busyIndicator.setVisible(true));
 
-        scrollPane.setFitToWidth(true);
-
-        dialogContainer.prefWidthProperty().bind(scrollPane.widthProperty().subtract(20));
+        try {
+            history = TranscriptHistory.createTemporary();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
     }
 
     /**
@@ -52,6 +85,7 @@ public class MainWindow extends AnchorPane {
     public void setSillyRat(SillyRat sr) {
         this.sillyRat = sr;
         showStartupReminder();
+        this.commands = new CommandQueue(sr, Platform::runLater);
     }
 
     /**
@@ -59,16 +93,13 @@ public class MainWindow extends AnchorPane {
      */
     private void showStartupReminder() {
         String reminder = sillyRat.getStartupReminder();
-        dialogContainer.getChildren().add(
-                DialogBox.getSillyRatDialog(reminder, ratImage)
-        );
+        addMessage(new ChatMessage(reminder, false));
     }
 
     /**
-     * Creates two dialog boxes.
-     * One echoing user input.
-     * The other containing SillyRat's reply and then appends them to the dialog container.
-     * Clears the user input after processing.
+     * Adds the user input to the transcript and queues it as a command; SillyRat's reply is added when it is ready.
+     * Clears the user input right away, so the next command can be typed while this one runs.
+     * Input is disabled after {@code bye}, so nothing is queued behind it.
      */
     @FXML
     private void handleUserInput() {
@@ -77,27 +108,164 @@ public class MainWindow extends AnchorPane {
             return;
         }
 
-        String response = sillyRat.getResponse(input);
+        addMessage(new ChatMessage(input, true));
+        userInput.clear();
 
-        DialogBox userDb = DialogBox.getUserDialog(input, userImage);
-        DialogBox ratDb = DialogBox.getSillyRatDialog(response, ratImage);
+        boolean isBye = input.equalsIgnoreCase("bye");
+        if (isBye) {
+            userInput.setDisable(true);
+            sendButton.setDisable(true);
+        }
+        if (pendingCommands++ == 0) {
+            busyDelay.playFromStart();
+        }
+        commands.submit(input, response -> handleResponse(response, isBye));
+    }
 
-        userDb.prefWidthProperty().bind(dialogContainer.widthProperty());
-        ratDb.prefWidthProperty().bind(dialogContainer.widthProperty());
+    /**
+     * Adds a reply to the transcript, hiding the busy indicator once no command is left running.
+     *
+     * @param response SillyRat's reply.
+     * @param isBye True if the reply is to {@code bye}, which closes the window.
+     */
+    private void handleResponse(String response, boolean isBye) {
+        addMessage(new ChatMessage(response, false));
+        if (--pendingCommands == 0) {
+            busyDelay.stop();
+            busyIndicator.setVisible(false);
+        }
+        if (isBye) {
+            shutdown();
+        }
+    }
 
-        dialogContainer.getChildren().addAll(userDb, ratDb);
-        userInput.clear();
+    /**
+     * Records a message and shows it at the bottom of the transcript.
+     * If older messages were paged in, the window first jumps back to the latest ones.
+     * The oldest messages leave the window once it holds {@value #WINDOW_SIZE}.
+     *
+     * @param message The message to add.
+     */
+    private void addMessage(ChatMessage message) {
+        boolean isAtEnd = history == null || shownFrom + shown.size() == history.size();
+        if (history != null) {
+            try {
+                history.append(message);
+            } catch (IOException e) {
+                e.printStackTrace();
+                closeHistory();
+            }
+        }
 
-        if (input.equalsIgnoreCase("bye")) {
-            shutdown();
+        if (isAtEnd || history == null) {
+            shown.add(message);
+            trimFront();
+        } else {
+            showRange(Math.max(0, history.size() - WINDOW_SIZE), history.size());
+        }
+        transcript.scrollTo(shown.size() - 1);
+    }
+
+    /**
+     * Pages in older or newer messages when a cell at either end of the window comes into view.
+     * The change is deferred, since the cell is in the middle of a layout pass.
+     *
+     * @param index The index in the window of the message the cell now shows.
+     */
+    private void handleCellShown(int index) {
+        if (index == 0 && shownFrom > 0) {
+            Platform.runLater(this::pageInOlder);
+        } else if (index == shown.size() - 1 && history != null && shownFrom + shown.size() < history.size()) {
+            Platform.runLater(this::pageInNewer);
+        }
+    }
+
+    private void pageInOlder() {
+        if (shownFrom == 0 || history == null) {
+            return;
+        }
+        int from = Math.max(0, shownFrom - PAGE_SIZE);
+        List<ChatMessage> older = readHistory(from, shownFrom);
+        if (older.isEmpty()) {
+            return;
+        }
+        shown.addAll(0, older);
+        shownFrom = from;
+        if (shown.size() > WINDOW_SIZE) {
+            shown.remove(WINDOW_SIZE, shown.size());
+        }
+        transcript.scrollTo(older.size());
+    }
+
+    private void pageInNewer() {
+        int end = shownFrom + shown.size();
+        if (history == null || end == history.size()) {
+            return;
+        }
+        List<ChatMessage> newer = readHistory(end, Math.min(history.size(), end + PAGE_SIZE));
+        if (newer.isEmpty()) {
+            return;
+        }
+        int firstNew = shown.size();
+        shown.addAll(newer);
+        firstNew -= trimFront();
+        transcript.scrollTo(Math.max(0, firstNew - 1));
+    }
+
+    /**
+     * Replaces the window with the messages at positions {@code from} up to but excluding {@code to}.
+     */
+    private void showRange(int from, int to) {
+        List<ChatMessage> messages = readHistory(from, to);
+        if (!messages.isEmpty()) {
+            shown.setAll(messages);
+            shownFrom = from;
+        }
+    }
+
+    /**
+     * Drops the oldest messages from the window until it holds at most {@value #WINDOW_SIZE}.
+     *
+     * @return The number of messages dropped.
+     */
+    private int trimFront() {
+        int excess = shown.size() - WINDOW_SIZE;
+        if (excess <= 0) {
+            return 0;
+        }
+        shown.remove(0, excess);
+        shownFrom += excess;
+        return excess;
+    }
+
+    private List<ChatMessage> readHistory(int from, int to) {
+        try {
+            return history.read(from, to);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return List.of();
+        }
+    }
+
+    private void closeHistory() {
+        if (history == null) {
+            return;
+        }
+        try {
+            history.close();
+        } catch (IOException e) {
+            e.printStackTrace();
         }
+        history = null;
     }
 
     private void shutdown() {
-        userInput.setDisable(true);
-        sendButton.setDisable(true);
         PauseTransition delay = new PauseTransition(Duration.seconds(2.5));
-        delay.setOnFinished(event -> Platform.exit());
+        delay.setOnFinished(event -> {
+            commands.close();
+            closeHistory();
+            Platform.exit();
+        });
         delay.play();
     }
 }
@@ -0,0 +1,120 @@
+package sillyrat.ui;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Append-only record of every message in the chat, kept in a file so that the window
+ * only has to hold the messages on screen. Each message is stored as a sender byte followed by
+ * its UTF-8 text; the only per-message state kept in memory is the file offset where it starts.
+ */
+class TranscriptHistory implements Closeable {
+    private static final byte FROM_SILLY_RAT = 0;
+    private static final byte FROM_USER = 1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Path file;
+    private final FileChannel channel;
+    /** Start offset of each message, followed by the end offset of the last one. */
+    private long[] offsets = new long[INITIAL_CAPACITY + 1];
+    private int size;
+
+    /**
+     * Opens a history backed by the given file, discarding anything already in it.
+     *
+     * @param file The file to store messages in.
+     * @throws IOException If the file cannot be opened.
+     */
+    TranscriptHistory(Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Opens a history in a new temporary file, which is deleted when the history is closed or the program exits.
+     *
+     * @return The new history.
+     * @throws IOException If the temporary file cannot be created.
+     */
+    static TranscriptHistory createTemporary() throws IOException {
+        Path file = Files.createTempFile("sillyrat-transcript", ".bin");
+        file.toFile().deleteOnExit();
+        return new TranscriptHistory(file);
+    }
+
+    /**
+     * Appends a message to the end of the history.
+     *
+     * @param message The message to append.
+     * @throws IOException If the message cannot be written.
+     */
+    void append(ChatMessage message) throws IOException {
+        byte[] text = message.getText().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(1 + text.length);
+        record.put(message.isFromUser() ? FROM_USER : FROM_SILLY_RAT).put(text).flip();
+
+        long end = offsets[size];
+        while (record.hasRemaining()) {
+            end += channel.write(record, end);
+        }
+        if (size + 1 == offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        offsets[++size] = end;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Reads the messages at positions {@code from} up to but excluding {@code to}, with one file read.
+     *
+     * @param from The zero-based position of the first message.
+     * @param to The position just past the last message.
+     * @return The messages, oldest first.
+     * @throws IOException If the messages cannot be read.
+     */
+    List<ChatMessage> read(int from, int to) throws IOException {
+        assert from >= 0 && from <= to && to <= size : "Range must be within the history";
+        long base = offsets[from];
+        ByteBuffer bytes = ByteBuffer.allocate((int) (offsets[to] - base));
+        while (bytes.hasRemaining()) {
+            if (channel.read(bytes, base + bytes.position()) < 0) {
+                throw new EOFException("Chat transcript file was truncated");
+            }
+        }
+
+        byte[] data = bytes.array();
+        List<ChatMessage> messages = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            int start = (int) (offsets[i] - base);
+            int end = (int) (offsets[i + 1] - base);
+            String text = new String(data, start + 1, end - start - 1, StandardCharsets.UTF_8);
+            messages.add(new ChatMessage(text, data[start] == FROM_USER));
+        }
+        return messages;
+    }
+
+    /**
+     * Closes the history and deletes its file.
+     *
+     * @throws IOException If the file cannot be closed or deleted.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+}
@@ -0,0 +1,91 @@
+package sillyrat;
+
+import java.io.BufferedReader;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CliTest {
+
+    @TempDir
+    Path tempDir;
+
+    private String run(String input, boolean isInteractive) throws Exception {
+        return run(input, isInteractive, -1);
+    }
+
+    /**
+     * Runs the given script, in batch mode with the given checkpoint interval unless it is negative.
+     */
+    private String run(String input, boolean isInteractive, int checkpointInterval) throws Exception {
+        StringWriter text = new StringWriter();
+        try (SillyRat bot = new SillyRat(tempDir.resolve("silly-rat.txt").toString())) {
+            Cli cli = new Cli(bot, new BufferedReader(new StringReader(input)), new PrintWriter(text), isInteractive);
+            if (checkpointInterval >= 0) {
+                cli.setBatch(checkpointInterval);
+            }
+            cli.run();
+        }
+        return text.toString().replace(System.lineSeparator(), "\n");
+    }
+
+    @Test
+    public void run_script_repliesToEachCommandAndStopsAtBye() throws Exception {
+        String output = run("todo read book\n\nlist\nbye\ntodo never seen\n", false);
+
+        assertTrue(output.startsWith("Hello Master!"));
+        assertTrue(output.contains("\n\nGot it. I've added this task:\n  [T][ ] read book\n"));
+        assertTrue(output.contains("\n\nHere are your master plans:\n1. [T][ ] read book #1\n\n"));
+        assertTrue(output.endsWith("See you! Please bring more food next time :)\n\n"));
+        assertFalse(output.contains("never seen"));
+        assertFalse(output.contains("> "));
+    }
+
+    @Test
+    public void run_endOfInputWithoutBye_stops() throws Exception {
+        String output = run("todo a", false);
+        assertTrue(output.endsWith("Now you have 1 tasks in the list.\n\n"));
+    }
+
+    @Test
+    public void run_interactive_showsPromptBeforeEachCommand() throws Exception {
+        String output = run("list\nbye\n", true);
+        assertEquals(2, output.split("> ", -1).length - 1);
+    }
+
+    @Test
+    public void run_batch_sameOutputAsWithoutBatch() throws Exception {
+        String script = "todo a\ndeadline b /by 2099-01-01 1800\nmark 1\ndelete 9\nlist\ndelete 2\nlist\nbye\n";
+        String expected = run(script, false);
+        Files.delete(tempDir.resolve("silly-rat.txt"));
+        Files.deleteIfExists(tempDir.resolve("silly-rat.txt.journal"));
+
+        assertEquals(expected, run(script, false, 0));
+    }
+
+    @Test
+    public void run_batchWithoutBye_savesAtEnd() throws Exception {
+        run("todo a\ntodo b\nmark 2\n", false, 0);
+
+        try (SillyRat reloaded = new SillyRat(tempDir.resolve("silly-rat.txt").toString())) {
+            assertEquals("Here are your master plans:\n1. [T][ ] a #1\n2. [T][X] b #2", reloaded.getResponse("list"));
+        }
+    }
+
+    @Test
+    public void run_batchWithCheckpoints_savesAtEachCheckpoint() throws Exception {
+        String output = run("todo a\ntodo b\nstats\ntodo c\n", false, 2);
+        assertTrue(output.contains("snapshots: 1,"));
+
+        try (SillyRat reloaded = new SillyRat(tempDir.resolve("silly-rat.txt").toString())) {
+            assertTrue(reloaded.getResponse("list").endsWith("3. [T][ ] c #3"));
+        }
+    }
+}
@@ -1,20 +1,49 @@
 package sillyrat;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import static org.junit.jupiter.api.Assertions.*;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import sillyrat.parser.Command;
+import sillyrat.task.Task;
+import sillyrat.task.TaskPage;
 
 public class SillyRatTest {
 
     @TempDir
     Path tempDir;
 
+    private final List<SillyRat> bots = new ArrayList<>();
+
     private SillyRat newBot() {
         Path file = tempDir.resolve("data").resolve("silly-rat.txt");
-        return new SillyRat(file.toString());
+        SillyRat bot = new SillyRat(file.toString());
+        bots.add(bot);
+        return bot;
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        for (SillyRat bot : bots) {
+            bot.close();
+        }
     }
 
     @Test
@@ -36,6 +65,53 @@ public class SillyRatTest {
         assertTrue(list.contains("1. [T][ ] read book"));
     }
 
+    @Test
+    public void getResponse_listPages_showsOnePageWithFooter() {
+        SillyRat bot = newBot();
+        for (int i = 1; i <= 5; i++) {
+            bot.getResponse("todo task " + i);
+        }
+
+        String second = bot.getResponse("list 2 --page-size 2");
+        assertFalse(second.contains("2. [T][ ] task 2"));
+        assertTrue(second.contains("3. [T][ ] task 3 #3"));
+        assertTrue(second.contains("4. [T][ ] task 4 #4"));
+        assertTrue(second.contains("Page 2 of 3. Next: list 3 --page-size 2"));
+
+        String last = bot.getResponse("list --page 3 --page-size 2");
+        assertTrue(last.contains("5. [T][ ] task 5"));
+        assertTrue(last.endsWith("Page 3 of 3."));
+
+        assertTrue(bot.getResponse("list 4 --page-size 2").contains("Pages go from 1 to 3"));
+    }
+
+    @Test
+    public void getResponse_findPages_continuesNumbering() {
+        SillyRat bot = newBot();
+        for (int i = 1; i <= 3; i++) {
+            bot.getResponse("todo read book " + i);
+        }
+        bot.getResponse("todo buy milk");
+
+        String second = bot.getResponse("find book --page 2 --page-size 2");
+        assertTrue(second.contains("3. [T][ ] read book 3 #3"));
+        assertFalse(second.contains("milk"));
+        assertTrue(second.endsWith("Page 2 of 2."));
+        assertTrue(bot.getResponse("find book --page-size 2").contains("Next: find book --page 2 --page-size 2"));
+    }
+
+    @Test
+    public void respond_list_passesOneTaskPerChunk() {
+        SillyRat bot = newBot();
+        bot.getResponse("todo a");
+        bot.getResponse("todo b");
+
+        List<String> chunks = new ArrayList<>();
+        bot.respond("list", chunks::add);
+        assertEquals(List.of("Here are your master plans:", "1. [T][ ] a #1", "2. [T][ ] b #2"), chunks);
+        assertEquals(String.join("\n", chunks), bot.getResponse("list"));
+    }
+
     @Test
     public void getResponse_markAndUnmark_updatesTaskState() {
         SillyRat bot = newBot();
@@ -73,6 +149,81 @@ public class SillyRatTest {
         assertTrue(list.contains("1. [T][ ] b"));
     }
 
+    @Test
+    public void getResponse_undoRedo_revertsAndReappliesChanges() {
+        SillyRat bot = newBot();
+        assertEquals("Nothing to undo, Master.", bot.getResponse("undo"));
+        bot.getResponse("todo a");
+        bot.getResponse("todo b");
+        bot.getResponse("mark 1");
+
+        assertEquals("Undone! I've marked this task as not done yet:\n  [T][ ] a", bot.getResponse("undo"));
+        assertEquals("Undone! I've removed this task:\n  [T][ ] b\nNow you have 1 tasks in the list.",
+                bot.getResponse("undo"));
+        assertEquals("Redone! This task is back on the list:\n  [T][ ] b\nNow you have 2 tasks in the list.",
+                bot.getResponse("redo"));
+        assertEquals("Redone! I've marked this task as done:\n  [T][X] a", bot.getResponse("redo"));
+        assertEquals("Nothing to redo, Master.", bot.getResponse("redo"));
+    }
+
+    @Test
+    public void getResponse_undoDelete_isSavedInPlace() {
+        SillyRat bot = newBot();
+        bot.getResponse("todo a");
+        bot.getResponse("todo b");
+        bot.getResponse("todo c");
+        bot.getResponse("delete 2");
+        bot.getResponse("undo");
+        bot.getResponse("delete 3");
+        bot.getResponse("undo");
+        bot.getResponse("bye");
+
+        String list = newBot().getResponse("list");
+        assertEquals("Here are your master plans:\n1. [T][ ] a #1\n2. [T][ ] b #2\n3. [T][ ] c #3", list);
+    }
+
+    @Test
+    public void getResponse_bye_flushesPendingChanges() {
+        SillyRat bot = newBot();
+        bot.getResponse("todo read book");
+        bot.getResponse("mark 1");
+        bot.getResponse("bye");
+
+        String list = newBot().getResponse("list");
+        assertTrue(list.contains("1. [T][X] read book"));
+    }
+
+    @Test
+    public void newBot_corruptJournal_keepsOriginalFilesAfterNextChange() throws Exception {
+        SillyRat first = newBot();
+        first.getResponse("todo read book");
+        first.close();
+        Path file = tempDir.resolve("data").resolve("silly-rat.txt");
+        Path journal = Path.of(file + ".journal");
+        Files.writeString(journal, "X\tnot an index" + System.lineSeparator(), StandardOpenOption.APPEND);
+        String snapshot = Files.readString(file);
+        String records = Files.readString(journal);
+
+        SillyRat bot = newBot();
+        assertTrue(bot.getStartupReminder().contains("moved to " + file + ".corrupt"));
+        bot.getResponse("todo write essay");
+        bot.close();
+
+        assertEquals(snapshot, Files.readString(Path.of(file + ".corrupt")));
+        assertEquals(records, Files.readString(Path.of(file + ".corrupt.journal")));
+        assertTrue(newBot().getResponse("list").endsWith("1. [T][ ] write essay #1"));
+    }
+
+    @Test
+    public void close_writesChangesStillWaitingForGroupCommit() throws Exception {
+        SillyRat bot = newBot();
+        bot.getResponse("todo read book");
+        bot.close();
+
+        String list = newBot().getResponse("list");
+        assertTrue(list.contains("1. [T][ ] read book"));
+    }
+
     @Test
     public void getResponse_find_returnsMatchingTasksOnly() {
         SillyRat bot = newBot();
@@ -97,11 +248,26 @@ public class SillyRatTest {
     @Test
     public void getResponse_event_endBeforeStart_showsErrorMessage() {
         SillyRat bot = newBot();
-        String resp = bot.getResponse("event meeting /from 2026-05-05 1600 /to 2026-05-05 1400");
+        String resp = bot.getResponse("event meeting /from 2099-05-05 1600 /to 2099-05-05 1400");
         assertTrue(resp.toLowerCase().contains("end"));
         assertTrue(resp.toLowerCase().contains("start"));
     }
 
+    @Test
+    public void getResponse_overlappingEvent_warnsAndListsConflict() {
+        SillyRat bot = newBot();
+        String day = LocalDate.now().plusDays(10).format(DateTimeFormatter.ISO_LOCAL_DATE);
+        bot.getResponse("event standup /from " + day + " 0900 /to " + day + " 1000");
+
+        String add = bot.getResponse("event review /from " + day + " 0930 /to " + day + " 1100");
+        assertTrue(add.toLowerCase().contains("clashes with"));
+        assertTrue(add.contains("standup"));
+
+        String conflicts = bot.getResponse("conflicts");
+        assertTrue(conflicts.contains("standup"));
+        assertTrue(conflicts.contains("review"));
+    }
+
     @Test
     public void getStartupReminder_whenNoUpcomingTasks_hasChillMessage() {
         SillyRat bot = newBot();
@@ -129,10 +295,181 @@ public class SillyRatTest {
                 || resp.toLowerCase().contains("dont understand"));
     }
 
+    @Test
+    public void helpText_listsEveryCommand() {
+        SillyRat bot = newBot();
+        String help = bot.getResponse("abracadabra");
+        String guide = bot.getStartupReminder();
+        for (Command command : Command.values()) {
+            String word = command.name().toLowerCase();
+            assertTrue(help.contains(word) || command == Command.BYE, word);
+            assertTrue(guide.contains(word), word);
+        }
+    }
+
     @Test
     public void getResponse_blankInput_returnsParserMessage() {
         SillyRat bot = newBot();
         String resp = bot.getResponse("   ");
         assertTrue(resp.toLowerCase().contains("say something"));
     }
+
+    @Test
+    public void getResponse_markById_findsTaskAfterNumbersShift() {
+        SillyRat bot = newBot();
+        bot.getResponse("todo read book");
+        bot.getResponse("todo buy milk");
+        assertTrue(bot.getResponse("list").contains("2. [T][ ] buy milk #2"));
+
+        bot.getResponse("delete 1");
+        assertTrue(bot.getResponse("mark #2").contains("[T][X] buy milk"));
+        assertTrue(bot.getResponse("unmark #1").contains("can't find a task with ID #1"));
+        bot.getResponse("bye");
+
+        String list = newBot().getResponse("list");
+        assertTrue(list.contains("1. [T][X] buy milk #2"));
+    }
+
+    @Test
+    public void getResponse_stats_reportsPhasesAndCounters() {
+        SillyRat bot = newBot();
+        bot.getResponse("todo read book");
+        bot.getResponse("todo buy milk");
+        bot.getResponse("mark 1");
+        bot.getResponse("list");
+        bot.getResponse("abracadabra");
+
+        String stats = bot.getResponse("stats");
+        assertTrue(stats.contains("todo      parse         2"), stats);
+        assertTrue(stats.contains("todo      save          2"), stats);
+        assertTrue(stats.contains("mark      execute       1"), stats);
+        assertTrue(stats.contains("list      execute       1"), stats);
+        assertFalse(stats.contains("list      save"), stats);
+        assertTrue(stats.contains("(invalid) parse         1"), stats);
+        assertTrue(stats.contains("Saves: 3,"), stats);
+        assertTrue(stats.endsWith("tasks in list: 2"), stats);
+    }
+
+    @Test
+    public void respond_duringRecording_emitsCommandEvents() throws Exception {
+        Path dump = tempDir.resolve("commands.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("sillyrat.Parse");
+            recording.enable("sillyrat.Execute");
+            recording.enable("sillyrat.JournalWrite");
+            recording.start();
+            SillyRat bot = newBot();
+            bot.getResponse("todo read book");
+            bot.getResponse("abracadabra");
+            bot.getResponse("bye");
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<String> parsed = new ArrayList<>();
+        List<String> executed = new ArrayList<>();
+        long journalBytes = 0;
+        for (RecordedEvent event : RecordingFile.readAllEvents(dump)) {
+            switch (event.getEventType().getName()) {
+            case "sillyrat.Parse":
+                parsed.add(event.getString("command"));
+                break;
+            case "sillyrat.Execute":
+                executed.add(event.getString("command") + " " + event.getInt("taskCount"));
+                break;
+            case "sillyrat.JournalWrite":
+                journalBytes += event.getLong("bytesWritten");
+                break;
+            default:
+                break;
+            }
+        }
+        assertEquals(Arrays.asList("todo", null, "bye"), parsed);
+        assertEquals(List.of("todo 1", "bye 1"), executed);
+        assertTrue(journalBytes > 0);
+    }
+
+    @Test
+    public void query_whileCommandIsSavingAndReplying_doesNotWait() throws Exception {
+        SillyRat bot = newBot();
+        bot.getResponse("deadline read book /by " + LocalDate.now().plusDays(1) + " 1800");
+        CountDownLatch replying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> command = pool.submit(() -> {
+                bot.respond("todo read more", chunk -> {
+                    replying.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                return null;
+            });
+            assertTrue(replying.await(5, TimeUnit.SECONDS));
+
+            // The command has changed the list and saved, and is now stuck writing its reply.
+            Future<Integer> found = pool.submit(() -> bot.query(tasks -> tasks.find("read").size()));
+            assertEquals(2, (int) found.get(5, TimeUnit.SECONDS));
+            assertEquals(1, (int) bot.query(tasks -> tasks.getUpcoming(7).size()));
+
+            release.countDown();
+            command.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void query_concurrentWithCommands_alwaysSeesConsistentList() throws Exception {
+        SillyRat bot = newBot();
+        String soon = LocalDate.now().plusDays(2).toString();
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> readers = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                readers.add(pool.submit(() -> {
+                    int reads = 0;
+                    while (isWriting.get() || reads == 0) {
+                        TaskPage page = bot.query(tasks -> tasks.page(0, Integer.MAX_VALUE));
+                        assertEquals(page.getTotal(), page.getTasks().size());
+                        for (Task task : bot.query(tasks -> tasks.find("job"))) {
+                            assertTrue(task.getDescription().contains("job"));
+                        }
+                        // Done flags change in place, so they are only checked while the query holds the list.
+                        bot.query(tasks -> {
+                            for (Task task : tasks.getUpcoming(7)) {
+                                assertFalse(task.isDone());
+                            }
+                            return null;
+                        });
+                        bot.query(tasks -> tasks.getConflicts());
+                        reads++;
+                    }
+                    return reads;
+                }));
+            }
+
+            for (int i = 0; i < 500; i++) {
+                bot.getResponse("todo job " + i);
+                bot.getResponse("deadline due job " + i + " /by " + soon + " 1800");
+                bot.getResponse("event meet job " + i + " /from " + soon + " 1000 /to " + soon + " 1100");
+                bot.getResponse("mark 2");
+                bot.getResponse("delete 1");
+            }
+            isWriting.set(false);
+
+            for (Future<Integer> reader : readers) {
+                assertTrue(reader.get(30, TimeUnit.SECONDS) > 0);
+            }
+        } finally {
+            isWriting.set(false);
+            pool.shutdownNow();
+        }
+        assertEquals(1000, (int) bot.query(tasks -> tasks.size()));
+    }
 }
@@ -3,6 +3,7 @@ package sillyrat.common;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -10,20 +11,20 @@ public class DateTimeUtilTest {
 
     @Test
     public void parseUserDateTime_acceptsDateOnly_returnsStartOfDay() {
-        LocalDateTime dt = DateTimeUtil.parseUserDateTime("2019-10-15");
-        assertEquals(LocalDateTime.of(2019, 10, 15, 0, 0), dt);
+        LocalDateTime dt = DateTimeUtil.parseUserDateTime("2099-10-15");
+        assertEquals(LocalDateTime.of(2099, 10, 15, 0, 0), dt);
     }
 
     @Test
     public void parseUserDateTime_acceptsIsoDateTimeWithHHmm() {
-        LocalDateTime dt = DateTimeUtil.parseUserDateTime("2019-10-15 1800");
-        assertEquals(LocalDateTime.of(2019, 10, 15, 18, 0), dt);
+        LocalDateTime dt = DateTimeUtil.parseUserDateTime("2099-10-15 1800");
+        assertEquals(LocalDateTime.of(2099, 10, 15, 18, 0), dt);
     }
 
     @Test
     public void parseUserDateTime_acceptsSlashFormat() {
-        LocalDateTime dt = DateTimeUtil.parseUserDateTime("2/12/2019 1800");
-        assertEquals(LocalDateTime.of(2019, 12, 2, 18, 0), dt);
+        LocalDateTime dt = DateTimeUtil.parseUserDateTime("2/12/2099 1800");
+        assertEquals(LocalDateTime.of(2099, 12, 2, 18, 0), dt);
     }
 
     @Test
@@ -33,12 +34,38 @@ public class DateTimeUtilTest {
         assertTrue(ex.getMessage().contains("Accepted formats"));
     }
 
+    @Test
+    public void parseUserDateTime_strictCalendar_rejectsImpossibleDates() {
+        assertEquals(LocalDateTime.of(2096, 2, 29, 9, 0), DateTimeUtil.parseUserDateTime("29/02/2096 0900"));
+        assertThrows(IllegalArgumentException.class, () -> DateTimeUtil.parseUserDateTime("29/2/2097 0900"));
+        assertThrows(IllegalArgumentException.class, () -> DateTimeUtil.parseUserDateTime("2099-04-31"));
+        assertThrows(IllegalArgumentException.class, () -> DateTimeUtil.parseUserDateTime("2099-1-05 1800"));
+        assertThrows(IllegalArgumentException.class, () -> DateTimeUtil.parseUserDateTime("2099-01-05 2400"));
+    }
+
+    @Test
+    public void parseUserDateTime_past_rejectedWithPastMessage() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> DateTimeUtil.parseUserDateTime("2019-10-15 1800"));
+        assertEquals("Date/time cannot be in the past.", ex.getMessage());
+
+        ex = assertThrows(IllegalArgumentException.class, () -> DateTimeUtil.parseUserDateTime("2019-10-15"));
+        assertEquals("Date cannot be before today.", ex.getMessage());
+    }
+
     @Test
     public void toDisplayString_midnight_showsOnlyDate() {
         String s = DateTimeUtil.toDisplayString(LocalDateTime.of(2019, 10, 15, 0, 0));
         assertEquals("Oct 15 2019", s);
     }
 
+    @Test
+    public void toDisplayString_repeatedValue_servedFromCache() {
+        String first = DateTimeUtil.toDisplayString(LocalDateTime.of(2019, 10, 15, 18, 5));
+        assertSame(first, DateTimeUtil.toDisplayString(LocalDateTime.of(2019, 10, 15, 18, 5)));
+        assertEquals("Oct 15 2019", DateTimeUtil.toDisplayString(LocalDateTime.of(2019, 10, 15, 0, 0)));
+    }
+
     @Test
     public void toDisplayString_nonMidnight_showsDateAndTime() {
         String s = DateTimeUtil.toDisplayString(LocalDateTime.of(2019, 10, 15, 18, 5));
@@ -57,4 +84,12 @@ public class DateTimeUtilTest {
         LocalDateTime dt = DateTimeUtil.parseStorageDateTime(" 2019-10-15T18:00:00 \n");
         assertEquals(LocalDateTime.of(2019, 10, 15, 18, 0, 0), dt);
     }
+
+    @Test
+    public void parseStorageDateTime_oddForms_fallBackToIsoFormatter() {
+        assertEquals(LocalDateTime.of(2019, 10, 15, 18, 0), DateTimeUtil.parseStorageDateTime("2019-10-15T18:00"));
+        assertEquals(LocalDateTime.of(2019, 10, 15, 18, 0, 5, 500_000_000),
+                DateTimeUtil.parseStorageDateTime("2019-10-15T18:00:05.5"));
+        assertThrows(DateTimeParseException.class, () -> DateTimeUtil.parseStorageDateTime("2019-02-29T18:00:00"));
+    }
 }
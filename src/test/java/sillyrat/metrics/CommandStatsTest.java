@@ -0,0 +1,98 @@
+package sillyrat.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sillyrat.metrics.CommandStats.Phase;
+import sillyrat.parser.Command;
+
+public class CommandStatsTest {
+    private static final Command[] COMMANDS = Command.values();
+    private static final Phase[] PHASES = Phase.values();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void record_countsPerCommandAndPhase() {
+        CommandStats stats = new CommandStats();
+        stats.record(Phase.PARSE, Command.TODO, 1_000);
+        stats.record(Phase.PARSE, Command.TODO, 2_000);
+        stats.record(Phase.SAVE, Command.TODO, 50_000);
+        stats.record(Phase.PARSE, null, 500);
+
+        assertEquals(2, stats.getCount(Phase.PARSE, Command.TODO));
+        assertEquals(0, stats.getCount(Phase.EXECUTE, Command.TODO));
+        assertEquals(1, stats.getCount(Phase.PARSE, null));
+        assertEquals(1, stats.getSaves());
+    }
+
+    @Test
+    public void report_listsRecordedRowsAndCounters() {
+        CommandStats stats = new CommandStats();
+        stats.record(Phase.EXECUTE, Command.LIST, 12_000);
+        stats.record(Phase.PARSE, null, 500);
+        stats.setStorageTotals(2, 4096);
+        stats.setListSize(7);
+
+        String report = stats.report();
+        assertTrue(report.contains("list      execute       1      12.0"), report);
+        assertTrue(report.contains("(invalid) parse"), report);
+        assertFalse(report.contains("todo"), report);
+        assertTrue(report.endsWith("Saves: 0, snapshots: 2, bytes written: 4096, tasks in list: 7"), report);
+    }
+
+    @Test
+    public void startDumping_writesReportToFileUntilStopped() throws Exception {
+        CommandStats stats = new CommandStats();
+        Path file = tempDir.resolve("stats").resolve("stats.txt");
+        stats.record(Phase.EXECUTE, Command.REMIND, 1_000);
+        stats.startDumping(file, 10);
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (Files.notExists(file) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(Files.exists(file));
+
+        stats.record(Phase.EXECUTE, Command.CONFLICTS, 1_000);
+        stats.stopDumping();
+        String dumped = Files.readString(file, StandardCharsets.UTF_8);
+        assertTrue(dumped.startsWith("SillyRat stats at "), dumped);
+        assertTrue(dumped.contains("conflicts execute"), dumped);
+    }
+
+    @Test
+    public void record_afterWarmUp_doesNotAllocate() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        CommandStats stats = new CommandStats();
+        long allocated = -1;
+        // The first rounds create the histograms and give the JIT time to settle.
+        for (int round = 0; round < 5; round++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            recordMany(stats);
+            allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        }
+
+        assertEquals(0, allocated);
+    }
+
+    private static void recordMany(CommandStats stats) {
+        for (int i = 0; i < 100_000; i++) {
+            stats.record(PHASES[i % PHASES.length], COMMANDS[i % COMMANDS.length], i * 37L);
+            stats.setListSize(i);
+            stats.setStorageTotals(i, i);
+        }
+    }
+}
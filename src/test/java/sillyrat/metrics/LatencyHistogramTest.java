@@ -0,0 +1,58 @@
+package sillyrat.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketIndex_isContiguousAndMatchesUpperBounds() {
+        int previous = -1;
+        for (long value = 0; value < 100_000; value++) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(index == previous || index == previous + 1, "gap at " + value);
+            assertTrue(value <= LatencyHistogram.bucketUpperBound(index));
+            if (index != previous && index > 0) {
+                assertEquals(value - 1, LatencyHistogram.bucketUpperBound(index - 1));
+            }
+            previous = index;
+        }
+    }
+
+    @Test
+    public void getValueAtPercentile_isWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 1_000_000; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(1_000_000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMax());
+        assertTrue(Math.abs(histogram.getMean() - 500_000.5) < 1);
+        long p50 = histogram.getValueAtPercentile(50);
+        long p99 = histogram.getValueAtPercentile(99);
+        assertTrue(p50 >= 500_000 && p50 <= 500_000 * 1.04, "p50 was " + p50);
+        assertTrue(p99 >= 990_000 && p99 <= 990_000 * 1.04, "p99 was " + p99);
+        assertEquals(1_000_000, histogram.getValueAtPercentile(100));
+        assertEquals(1, histogram.getValueAtPercentile(0));
+    }
+
+    @Test
+    public void record_negativeAndHugeValues_areClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(Long.MAX_VALUE, histogram.getMax());
+        assertEquals(2, histogram.getCount());
+    }
+
+    @Test
+    public void emptyHistogram_reportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+        assertEquals(0.0, histogram.getMean());
+    }
+}
@@ -0,0 +1,116 @@
+package sillyrat.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import sillyrat.common.SillyRatException;
+
+public class CommandScannerTest {
+    private static final String[] INPUTS = {
+        null, "", "   ", "list", "LIST", "  list  ", "list now", "bye", "remind", "conflicts x", "list  ",
+        "todo", "todo   ", "todo read book", "Todo  read | book", "todo \t nap",
+        "deadline", "deadline return book", "deadline return book /by", "deadline /by 2030-01-01",
+        "deadline return book /by 2030-01-01 1800", "deadline a /by b /by c", "deadline a |/by b",
+        "event", "event meeting /from x", "event meeting /to y /from x", "event meeting /from /to y",
+        "event  /from a /to b", "event m /from  /to b", "event m /from a /to ", "event m /from a /to b /to c",
+        "mark", "mark 0", "mark -1", "mark two", "mark 3", "mark +4", "mark 99999999999", "mark #", "mark #0",
+        "mark #12", "delete # 1", "unmark #-3", "delete 1 2", "find", "find book OR cheese",
+        "abracadabra", "fınd book", "ﬁnd book", "mark\t1", "list \u2003",
+        "list 2", "list 0", "list 2 3", "list --page", "list --page 3 --page-size 20", "list --page-size 1001",
+        "list --page-size 1000 4", "list --page-size=5", "find --page 2", "find book --page 2 --page-size 5",
+        "find book --page", "find book --page x", "find a --page --page 2", "find  --page-size 3 --page 0",
+        "find book--page 2", "find book --page 2 more", "stats", "STATS", "stats now", "undo", "redo", "undo 2",
+    };
+
+    private static String describe(Parser parser, String input) {
+        try {
+            return describe(parser.parse(input));
+        } catch (SillyRatException e) {
+            return "error: " + e.getMessage();
+        }
+    }
+
+    private static String describe(CommandScanner scanner, String input) {
+        try {
+            return describe(scanner.parse(input));
+        } catch (SillyRatException e) {
+            return "error: " + e.getMessage();
+        }
+    }
+
+    private static String describe(ParsedCommand parsed) {
+        Object args = parsed.getArgs();
+        String detail;
+        if (args instanceof TodoArgs) {
+            detail = ((TodoArgs) args).getDescription();
+        } else if (args instanceof DeadlineArgs) {
+            detail = ((DeadlineArgs) args).getDescription() + "|" + ((DeadlineArgs) args).getByRaw();
+        } else if (args instanceof EventArgs) {
+            EventArgs e = (EventArgs) args;
+            detail = e.getDescription() + "|" + e.getFromRaw() + "|" + e.getToRaw();
+        } else if (args instanceof FindArgs) {
+            FindArgs f = (FindArgs) args;
+            detail = f.getSearchString() + "|" + describe(f.getPage());
+        } else if (args instanceof PageArgs) {
+            detail = describe((PageArgs) args);
+        } else if (args instanceof IndexArgs) {
+            IndexArgs i = (IndexArgs) args;
+            detail = i.isById() ? "#" + i.getTaskId() : String.valueOf(i.getTaskNumber());
+        } else {
+            detail = args.getClass().getSimpleName();
+        }
+        return parsed.getCommand() + " " + detail;
+    }
+
+    private static String describe(PageArgs page) {
+        return page.getPage() + "/" + page.getPageSize();
+    }
+
+    @Test
+    public void parse_edgeCases_matchParser() {
+        Parser parser = new Parser();
+        CommandScanner scanner = new CommandScanner();
+        for (String input : INPUTS) {
+            assertEquals(describe(parser, input), describe(scanner, input), "input: " + input);
+        }
+    }
+
+    @Test
+    public void parse_randomInputs_matchParser() {
+        String[] pieces = {"todo", "deadline", "event", "mark", "find", "list", "#", "1", "0", "x", "book",
+            " ", "  ", "\t", " /by ", " /from ", " /to ", "/by", "|", "-", " ",
+            " --page ", " --page-size ", "--page", "2", "1000", "1001"};
+        Parser parser = new Parser();
+        CommandScanner scanner = new CommandScanner();
+        Random random = new Random(7);
+        for (int n = 0; n < 20_000; n++) {
+            StringBuilder input = new StringBuilder();
+            for (int k = random.nextInt(7); k >= 0; k--) {
+                input.append(pieces[random.nextInt(pieces.length)]);
+            }
+            String text = input.toString();
+            assertEquals(describe(parser, text), describe(scanner, text), "input: " + text);
+        }
+    }
+
+    @Test
+    public void scan_reportsArgumentSpans() throws Exception {
+        CommandScanner scanner = new CommandScanner();
+        String input = "  event  team sync /from 2030-05-05 1400 /to 2030-05-05 1600 ";
+        assertEquals(Command.EVENT, scanner.scan(input));
+        List<String> args = new ArrayList<>();
+        for (int i = 0; i < scanner.getArgCount(); i++) {
+            args.add(input.substring(scanner.getArgStart(i), scanner.getArgEnd(i)));
+        }
+        assertEquals(List.of("team sync", "2030-05-05 1400", "2030-05-05 1600"), args);
+
+        assertEquals(Command.DELETE, scanner.scan(new StringBuilder("delete #42")));
+        assertTrue(scanner.isById());
+        assertEquals(42, scanner.getNumber());
+    }
+}
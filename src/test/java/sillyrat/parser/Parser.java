@@ -3,9 +3,13 @@ package sillyrat.parser;
 import sillyrat.common.SillyRatException;
 
 /**
- * Parses raw user input strings into structured {@link ParsedCommand} objects.
+ * Parses raw user input strings into structured {@link ParsedCommand} objects by splitting strings.
+ * This is the original parser, kept as the oracle that {@link CommandScannerTest} checks {@link CommandScanner}
+ * against: it is slower but its grammar is easy to read, so the two must accept and reject the same inputs.
  */
 public class Parser {
+    /** Prefix that makes a task reference an ID instead of a list position, as in {@code mark #12}. */
+    private static final String TASK_ID_PREFIX = "#";
 
     /**
      * Parses the given user input and returns a structured command with its arguments.
@@ -32,18 +36,19 @@ public class Parser {
         try {
             command = Command.fromString(commandWord);
         } catch (IllegalArgumentException e) {
-            throw new SillyRatException("I don't understand Meowese, Master. "
-                    + "\n\nTalk in Squeakese:"
-                    + "\n• New task: todo, deadline, event"
-                    + "\n• Manage: list, mark, unmark, delete"
-                    + "\n• Search: find"
-                    + "\n• Reminders: remind");
+            throw new SillyRatException(CommandScanner.UNKNOWN_COMMAND_MESSAGE);
         }
 
         switch (command) {
         case LIST:
+            return new ParsedCommand(command, PageArgs.parse(rest, 0, rest.length(), commandWord));
+
         case BYE:
         case REMIND:
+        case CONFLICTS:
+        case STATS:
+        case UNDO:
+        case REDO:
             requireNoArgs(commandWord, rest);
             return new ParsedCommand(command, new NoArgs());
 
@@ -62,15 +67,10 @@ public class Parser {
             return new ParsedCommand(command, parseIndexArgs(commandWord, rest));
 
         case FIND:
-            return new ParsedCommand(command, parseFindArgs(rest));
+            return new ParsedCommand(command, parseFindArgs(commandWord, rest));
 
         default:
-            throw new SillyRatException("I don't understand Meowese, Master. "
-                    + "\n\nTalk in Squeakese:"
-                    + "\n• New task: todo, deadline, event"
-                    + "\n• Manage: list, mark, unmark, delete"
-                    + "\n• Search: find"
-                    + "\n• Reminders: remind");
+            throw new SillyRatException(CommandScanner.UNKNOWN_COMMAND_MESSAGE);
         }
     }
 
@@ -156,12 +156,15 @@ public class Parser {
         return new EventArgs(desc, fromRaw, toRaw);
     }
 
-    private FindArgs parseFindArgs(String rest)
+    private FindArgs parseFindArgs(String commandWord, String rest)
             throws SillyRatException {
-        if (rest.isEmpty()) {
+        int optionsStart = rest.isEmpty() ? 0 : PageArgs.trailingOptionsStart(rest, 0, rest.length());
+        String searchString = rest.substring(0, optionsStart).trim();
+        if (searchString.isEmpty()) {
             throw new SillyRatException("Please provide a search term. Example: find book");
         }
-        return new FindArgs(rest);
+        PageArgs page = PageArgs.parse(rest, optionsStart, rest.length(), commandWord + " " + searchString);
+        return new FindArgs(searchString, page);
     }
 
     private IndexArgs parseIndexArgs(String commandWord, String rest) throws SillyRatException {
@@ -169,9 +172,14 @@ public class Parser {
             throw new SillyRatException("Please provide a task number. Example: " + commandWord + " 2");
         }
 
+        String target = rest.trim();
+        if (target.startsWith(TASK_ID_PREFIX)) {
+            return parseTaskId(commandWord, target.substring(TASK_ID_PREFIX.length()));
+        }
+
         int n;
         try {
-            n = Integer.parseInt(rest.trim());
+            n = Integer.parseInt(target);
         } catch (NumberFormatException e) {
             throw new SillyRatException("Task number must be a number. Example: " + commandWord + " 3");
         }
@@ -182,4 +190,19 @@ public class Parser {
 
         return new IndexArgs(n);
     }
+
+    private IndexArgs parseTaskId(String commandWord, String digits) throws SillyRatException {
+        long id;
+        try {
+            id = Long.parseLong(digits);
+        } catch (NumberFormatException e) {
+            throw new SillyRatException("Task ID must be a number. Example: " + commandWord + " #12");
+        }
+
+        if (id < 1) {
+            throw new SillyRatException("Task ID must be at least 1.");
+        }
+
+        return IndexArgs.ofTaskId(id);
+    }
 }
@@ -23,6 +23,38 @@ public class ParserTest {
         assertTrue(ex.getMessage().toLowerCase().contains("list"));
     }
 
+    @Test
+    public void parse_listPage_readsPageAndSize() throws Exception {
+        PageArgs first = (PageArgs) parser.parse("list").getArgs();
+        assertEquals(1, first.getPage());
+        assertEquals(PageArgs.DEFAULT_PAGE_SIZE, first.getPageSize());
+
+        PageArgs bare = (PageArgs) parser.parse("list 3").getArgs();
+        assertEquals(3, bare.getPage());
+
+        PageArgs sized = (PageArgs) parser.parse("list --page-size 20 --page 2").getArgs();
+        assertEquals(2, sized.getPage());
+        assertEquals(20, sized.getPageSize());
+        assertEquals(20, sized.getOffset());
+
+        assertThrows(SillyRatException.class, () -> parser.parse("list 0"));
+        assertThrows(SillyRatException.class, () -> parser.parse("list --page-size 1001"));
+    }
+
+    @Test
+    public void parse_findWithPaging_keepsOptionsOutOfSearchString() throws Exception {
+        FindArgs args = (FindArgs) parser.parse("find read book --page 2 --page-size 10").getArgs();
+        assertEquals("read book", args.getSearchString());
+        assertEquals(2, args.getPage().getPage());
+        assertEquals(10, args.getPage().getPageSize());
+
+        FindArgs plain = (FindArgs) parser.parse("find --page-count").getArgs();
+        assertEquals("--page-count", plain.getSearchString());
+        assertEquals(1, plain.getPage().getPage());
+
+        assertThrows(SillyRatException.class, () -> parser.parse("find --page 2"));
+    }
+
     @Test
     public void parse_bye_noArgs_ok() throws Exception {
         ParsedCommand cmd = parser.parse("bye");
@@ -30,6 +62,19 @@ public class ParserTest {
         assertNotNull(cmd.getArgs());
     }
 
+    @Test
+    public void parse_stats_rejectsExtraWords() throws Exception {
+        assertEquals(Command.STATS, parser.parse("stats").getCommand());
+        assertThrows(SillyRatException.class, () -> parser.parse("stats now"));
+    }
+
+    @Test
+    public void parse_undoRedo_rejectsExtraWords() throws Exception {
+        assertEquals(Command.UNDO, parser.parse("undo").getCommand());
+        assertEquals(Command.REDO, parser.parse("REDO").getCommand());
+        assertThrows(SillyRatException.class, () -> parser.parse("undo 2"));
+    }
+
     @Test
     public void parse_todo_missingDescription_throws() {
         assertThrows(SillyRatException.class, () -> parser.parse("todo"));
@@ -57,4 +102,14 @@ public class ParserTest {
         assertTrue(ex.getMessage().toLowerCase().contains("don't understand")
                 || ex.getMessage().toLowerCase().contains("dont understand"));
     }
+
+    @Test
+    public void parse_markById_returnsTaskId() throws Exception {
+        IndexArgs args = (IndexArgs) parser.parse("mark #12").getArgs();
+        assertTrue(args.isById());
+        assertEquals(12, args.getTaskId());
+        assertFalse(((IndexArgs) parser.parse("mark 12").getArgs()).isById());
+        assertThrows(SillyRatException.class, () -> parser.parse("delete #0"));
+        assertThrows(SillyRatException.class, () -> parser.parse("delete #two"));
+    }
 }
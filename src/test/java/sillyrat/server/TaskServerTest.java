@@ -0,0 +1,198 @@
+package sillyrat.server;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sillyrat.SillyRat;
+
+public class TaskServerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SillyRat sillyRat;
+    private TaskServer server;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        sillyRat = new SillyRat(tempDir.resolve("silly-rat.txt").toString());
+        server = new TaskServer(sillyRat, 0);
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        server.close();
+        sillyRat.close();
+    }
+
+    private HttpResponse<String> get(String pathAndQuery) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri(pathAndQuery)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String command(String input) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri("/command"))
+                .POST(HttpRequest.BodyPublishers.ofString(input)).build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        return response.body();
+    }
+
+    /**
+     * Sends a GET request with the given Host header over a plain socket, as the HTTP client will not send
+     * a Host other than the URI's, and returns the status line.
+     */
+    private String statusLineFor(String host) throws Exception {
+        try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET /tasks HTTP/1.1\r\nHost: " + host + "\r\nConnection: close\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII))
+                    .readLine();
+        }
+    }
+
+    private URI uri(String pathAndQuery) {
+        return URI.create("http://127.0.0.1:" + server.getPort() + pathAndQuery);
+    }
+
+    @Test
+    public void command_repliesLikeChat() throws Exception {
+        assertEquals("Got it. I've added this task:\n  [T][ ] read book\nNow you have 1 tasks in the list.",
+                command("todo read book"));
+        assertEquals("Here are your master plans:\n1. [T][ ] read book #1", command("list"));
+    }
+
+    @Test
+    public void tasks_returnsPageAsJson() throws Exception {
+        command("todo say \"hi\"");
+        command("deadline return book /by 2099-03-15 1800");
+        command("event party /from 2099-03-16 1900 /to 2099-03-16 2200");
+        command("mark 2");
+
+        HttpResponse<String> response = get("/tasks?offset=1&limit=5");
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("application/json"));
+        assertEquals("{\"total\":3,\"offset\":1,\"tasks\":["
+                + "{\"id\":2,\"type\":\"deadline\",\"description\":\"return book\",\"done\":true,"
+                + "\"by\":\"2099-03-15T18:00\"},"
+                + "{\"id\":3,\"type\":\"event\",\"description\":\"party\",\"done\":false,"
+                + "\"from\":\"2099-03-16T19:00\",\"to\":\"2099-03-16T22:00\"}]}", response.body());
+        assertTrue(get("/tasks").body().contains("\"description\":\"say \\\"hi\\\"\""));
+    }
+
+    @Test
+    public void find_decodesKeywords() throws Exception {
+        command("todo read book");
+        command("todo buy milk");
+
+        String body = get("/find?q=read%20book").body();
+        assertTrue(body.startsWith("{\"total\":1,\"offset\":0,\"tasks\":[{\"id\":1,"));
+        assertEquals(400, get("/find").statusCode());
+    }
+
+    @Test
+    public void upcoming_returnsTasksDueWithinDays() throws Exception {
+        command("todo read book");
+        command("deadline far away /by 2999-01-01 1200");
+
+        assertEquals("{\"tasks\":[]}", get("/upcoming?days=30").body());
+    }
+
+    @Test
+    public void query_invalidParameterOrMethod_rejected() throws Exception {
+        assertEquals(400, get("/tasks?limit=-1").statusCode());
+        assertEquals(400, get("/tasks?offset=abc").statusCode());
+        assertEquals(405, get("/command").statusCode());
+        assertEquals(404, get("/nothing").statusCode());
+    }
+
+    @Test
+    public void request_forAnotherHost_forbidden() throws Exception {
+        int port = server.getPort();
+        assertTrue(statusLineFor("localhost:" + port).startsWith("HTTP/1.1 200"));
+        assertTrue(statusLineFor("attacker.example:" + port).startsWith("HTTP/1.1 403"));
+        assertTrue(statusLineFor("127.0.0.1:" + (port + 1)).startsWith("HTTP/1.1 403"));
+        assertTrue(statusLineFor("127.0.0.1").startsWith("HTTP/1.1 403"));
+    }
+
+    @Test
+    public void request_withOrigin_forbiddenAndNotRun() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri("/command"))
+                .header("Origin", "http://attacker.example")
+                .POST(HttpRequest.BodyPublishers.ofString("todo read book")).build();
+        assertEquals(403, client.send(request, HttpResponse.BodyHandlers.ofString()).statusCode());
+
+        HttpRequest query = HttpRequest.newBuilder(uri("/tasks")).header("Origin", "null").GET().build();
+        assertEquals(403, client.send(query, HttpResponse.BodyHandlers.ofString()).statusCode());
+        assertTrue(command("list").startsWith("Nothing on the list"));
+    }
+
+    @Test
+    public void parseQuery_lastRepeatWinsAndMissingValueIsEmpty() {
+        Map<String, String> params = TaskServer.parseQuery("a=1&b&a=2&c=x%2By+z");
+        assertEquals("2", params.get("a"));
+        assertEquals("", params.get("b"));
+        assertEquals("x+y z", params.get("c"));
+    }
+
+    @Test
+    public void readsDuringWrites_alwaysSeeWholeCommands() throws Exception {
+        int adds = 200;
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<?> writer = pool.submit(() -> {
+                for (int i = 0; i < adds; i++) {
+                    command("todo task " + i);
+                }
+                return null;
+            });
+            List<Future<?>> readers = new ArrayList<>();
+            Pattern total = Pattern.compile("^\\{\"total\":(\\d+),");
+            for (int r = 0; r < 3; r++) {
+                readers.add(pool.submit(() -> {
+                    while (!writer.isDone()) {
+                        String body = get("/tasks?limit=1000").body();
+                        Matcher matcher = total.matcher(body);
+                        assertTrue(matcher.find(), body);
+                        int count = body.split("\"type\":", -1).length - 1;
+                        assertEquals(Integer.parseInt(matcher.group(1)), count);
+                    }
+                    return null;
+                }));
+            }
+            writer.get();
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertTrue(get("/tasks?limit=1").body().startsWith("{\"total\":" + adds + ","));
+    }
+}
@@ -0,0 +1,101 @@
+package sillyrat.storage;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import sillyrat.task.Deadline;
+import sillyrat.task.Event;
+import sillyrat.task.Task;
+import sillyrat.task.TaskList;
+import sillyrat.task.Todo;
+
+public class DatasetGeneratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static DatasetGenerator fixedGenerator(long seed) {
+        DatasetGenerator generator = new DatasetGenerator(seed);
+        generator.setAnchor(LocalDateTime.of(2030, 1, 1, 0, 0));
+        return generator;
+    }
+
+    @Test
+    public void write_sameSeed_writesSameFile() throws Exception {
+        Path first = tempDir.resolve("first.txt");
+        Path second = tempDir.resolve("second.txt");
+        fixedGenerator(7).write(first, 500);
+        fixedGenerator(7).write(second, 500);
+        assertEquals(Files.readString(first), Files.readString(second));
+
+        Path other = tempDir.resolve("other.txt");
+        fixedGenerator(8).write(other, 500);
+        assertNotEquals(Files.readString(first), Files.readString(other));
+    }
+
+    @Test
+    public void write_fileLoadsWithIdsInOrder() throws Exception {
+        Path file = tempDir.resolve("data").resolve("tasks.txt");
+        fixedGenerator(1).write(file, 1000);
+
+        TaskList tasks = new Storage(file.toString()).load();
+        assertEquals(1000, tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(i + 1, tasks.get(i).getId());
+        }
+    }
+
+    @Test
+    public void next_followsMixDoneRatioSpreadAndWordRange() {
+        DatasetGenerator generator = fixedGenerator(3);
+        generator.setMix(1, 0, 1);
+        generator.setDoneRatio(0.5);
+        generator.setSpreadDays(2);
+        generator.setWordRange(3, 3);
+
+        int events = 0;
+        int done = 0;
+        for (int i = 0; i < 10_000; i++) {
+            Task task = generator.next();
+            assertFalse(task instanceof Deadline);
+            assertEquals(4, task.getDescription().split(" ").length);
+            if (task instanceof Event) {
+                events++;
+                LocalDateTime from = ((Event) task).getFrom();
+                assertFalse(from.isBefore(LocalDateTime.of(2029, 12, 30, 0, 0)));
+                assertFalse(from.isAfter(LocalDateTime.of(2030, 1, 3, 0, 0)));
+                assertTrue(((Event) task).getTo().isAfter(from));
+            } else {
+                assertTrue(task instanceof Todo);
+            }
+            done += task.isDone() ? 1 : 0;
+        }
+        assertTrue(Math.abs(events - 5000) < 300);
+        assertTrue(Math.abs(done - 5000) < 300);
+    }
+
+    @Test
+    public void fromOptions_readsOptions_andRejectsBadOnes() {
+        DatasetGenerator generator = DatasetGenerator.fromOptions(new String[] {
+            "--mix", "0:1:0", "--done-ratio", "1", "--anchor", LocalDate.of(2030, 1, 1).toString()}, 0);
+        Task task = generator.next();
+        assertTrue(task instanceof Deadline);
+        assertTrue(task.isDone());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> DatasetGenerator.fromOptions(new String[] {"--mix", "1:2"}, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> DatasetGenerator.fromOptions(new String[] {"--done-ratio", "2"}, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> DatasetGenerator.fromOptions(new String[] {"--colour", "red"}, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> DatasetGenerator.fromOptions(new String[] {"--seed"}, 0));
+    }
+}
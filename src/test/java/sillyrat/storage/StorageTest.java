@@ -0,0 +1,338 @@
+package sillyrat.storage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import sillyrat.task.Deadline;
+import sillyrat.task.Event;
+import sillyrat.task.Task;
+import sillyrat.task.TaskList;
+import sillyrat.task.Todo;
+
+public class StorageTest {
+
+    @TempDir
+    Path tempDir;
+
+    private String dataFile() {
+        return tempDir.resolve("data").resolve("silly-rat.txt").toString();
+    }
+
+    @Test
+    public void appendRecords_thenLoad_replaysJournal() throws Exception {
+        Storage storage = new Storage(dataFile());
+        TaskList tasks = storage.load();
+
+        Task a = new Todo("a");
+        tasks.add(a);
+        storage.appendAdd(a, tasks);
+        Task b = new Todo("b");
+        tasks.add(b);
+        storage.appendAdd(b, tasks);
+        tasks.markDone(1);
+        storage.appendMark(1, true, tasks);
+        tasks.remove(0);
+        storage.appendDelete(0, tasks);
+
+        TaskList loaded = new Storage(dataFile()).load();
+        assertEquals(1, loaded.size());
+        assertEquals("[T][X] b", loaded.get(0).toString());
+        assertEquals("", Files.readString(Path.of(dataFile())));
+    }
+
+    @Test
+    public void load_replayedMarks_keepIndexesInStep() throws Exception {
+        Storage storage = new Storage(dataFile());
+        TaskList tasks = storage.load();
+        Task due = new Deadline("return book", LocalDateTime.now().plusDays(1));
+        tasks.add(due);
+        storage.appendAdd(due, tasks);
+        tasks.markDone(0);
+        storage.appendMark(0, true, tasks);
+
+        TaskList loaded = new Storage(dataFile()).load();
+        assertTrue(loaded.get(0).isDone());
+        assertTrue(loaded.getUpcoming(7).isEmpty());
+    }
+
+    @Test
+    public void appendRecords_pastThreshold_compactsIntoSnapshot() throws Exception {
+        Storage storage = new Storage(dataFile(), 2);
+        TaskList tasks = storage.load();
+
+        for (String name : new String[] {"a", "b", "c"}) {
+            Task t = new Todo(name);
+            tasks.add(t);
+            storage.appendAdd(t, tasks);
+        }
+
+        List<String> snapshot = Files.readAllLines(Path.of(dataFile()));
+        assertEquals(List.of("T\t0\ta\t#1", "T\t0\tb\t#2"), snapshot);
+
+        TaskList loaded = new Storage(dataFile()).load();
+        assertEquals(3, loaded.size());
+        assertEquals("[T][ ] c", loaded.get(2).toString());
+    }
+
+    @Test
+    public void load_journalFromOlderSnapshot_isDiscarded() throws Exception {
+        Storage storage = new Storage(dataFile());
+        TaskList tasks = storage.load();
+        Task a = new Todo("a");
+        tasks.add(a);
+        storage.appendAdd(a, tasks);
+
+        // Simulate a crash after the snapshot was rewritten but before the journal was reset.
+        Path journal = Path.of(dataFile() + ".journal");
+        String staleJournal = Files.readString(journal);
+        storage.save(tasks);
+        Files.writeString(journal, staleJournal);
+
+        TaskList loaded = new Storage(dataFile()).load();
+        assertEquals(1, loaded.size());
+    }
+
+    @Test
+    public void load_tornTrailingRecord_isIgnored() throws Exception {
+        Storage storage = new Storage(dataFile());
+        TaskList tasks = storage.load();
+        Task a = new Todo("a");
+        tasks.add(a);
+        storage.appendAdd(a, tasks);
+
+        Files.writeString(Path.of(dataFile() + ".journal"), "A\tD\t0\thalf",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        TaskList loaded = new Storage(dataFile()).load();
+        assertEquals(1, loaded.size());
+        assertEquals("[T][ ] a", loaded.get(0).toString());
+    }
+
+    @Test
+    public void load_unreadableRecordBeforeOthers_fails() throws Exception {
+        Storage storage = new Storage(dataFile());
+        TaskList tasks = storage.load();
+        Task a = new Todo("a");
+        tasks.add(a);
+        storage.appendAdd(a, tasks);
+
+        Files.writeString(Path.of(dataFile() + ".journal"), "X\t5\nM\t0\n",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        IOException e = assertThrows(IOException.class, () -> new Storage(dataFile()).load());
+        assertTrue(e.getCause().getMessage().contains("line 3"), e.getCause().getMessage());
+    }
+
+    @Test
+    public void appendRecord_afterFailedLoad_savesSnapshotThatLoads() throws Exception {
+        Path file = Path.of(dataFile());
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "T\t0\tread book\nD\t0\treturn book\tsoon\n");
+
+        Storage storage = new Storage(dataFile());
+        assertThrows(Exception.class, storage::load);
+        TaskList tasks = new TaskList();
+        Task a = new Todo("a");
+        tasks.add(a);
+        storage.appendAdd(a, tasks);
+
+        TaskList loaded = new Storage(dataFile()).load();
+        assertEquals(1, loaded.size());
+        assertEquals("[T][ ] a", loaded.get(0).toString());
+    }
+
+    @Test
+    public void load_unreadableTwice_movesEachAsideUnderItsOwnName() throws Exception {
+        Path file = Path.of(dataFile());
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "D\t0\treturn book\tsoon\n");
+        assertThrows(IOException.class, () -> new Storage(dataFile()).load());
+        Files.writeString(file, "E\t0\tparty\tnow\tlater\n");
+
+        IOException e = assertThrows(IOException.class, () -> new Storage(dataFile()).load());
+        assertTrue(e.getMessage().endsWith("moved to " + file + ".corrupt2"), e.getMessage());
+        assertEquals("D\t0\treturn book\tsoon\n", Files.readString(Path.of(file + ".corrupt")));
+        assertEquals("E\t0\tparty\tnow\tlater\n", Files.readString(Path.of(file + ".corrupt2")));
+    }
+
+    @Test
+    public void load_crlfAndLinesSpanningReadBuffer_decodesEveryLine() throws Exception {
+        String longDescription = "cheese ".repeat(20_000).trim();
+        Path file = Path.of(dataFile());
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "T\t0\tfirst\r\n\r\nT\t1\t" + longDescription + "\r\nT\t0\tlast");
+
+        TaskList loaded = new Storage(dataFile()).load();
+        assertEquals(3, loaded.size());
+        assertEquals("first", loaded.get(0).getDescription());
+        assertEquals(longDescription, loaded.get(1).getDescription());
+        assertEquals("last", loaded.get(2).getDescription());
+    }
+
+    @Test
+    public void save_binaryFormat_isDetectedOnLoad() throws Exception {
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("read book"));
+        tasks.add(new Deadline("return book", LocalDateTime.of(2030, 3, 15, 18, 0)));
+        tasks.add(new Event("meeting", LocalDateTime.of(2030, 5, 5, 14, 0), LocalDateTime.of(2030, 5, 5, 16, 0)));
+        tasks.markDone(1);
+        new Storage(dataFile(), StorageFormat.BINARY, Storage.DEFAULT_COMPACT_THRESHOLD).save(tasks);
+
+        Storage storage = new Storage(dataFile());
+        TaskList loaded = storage.load();
+        assertEquals(StorageFormat.BINARY, storage.getFormat());
+        assertEquals(3, loaded.size());
+        assertEquals("T\t0\tread book\t#1", loaded.get(0).toSaveString());
+        assertEquals("D\t1\treturn book\t2030-03-15T18:00:00\t#2", loaded.get(1).toSaveString());
+        assertEquals("E\t0\tmeeting\t2030-05-05T14:00:00\t2030-05-05T16:00:00\t#3", loaded.get(2).toSaveString());
+    }
+
+    @Test
+    public void convert_textToBinaryAndBack_preservesTasks() throws Exception {
+        Path file = Path.of(dataFile());
+        Files.createDirectories(file.getParent());
+        List<String> lines = List.of("T\t1\tnap\t#4", "D\t0\tsubmit report\t2030-10-15T18:00:00\t#9");
+        Files.write(file, lines);
+
+        assertEquals(2, StorageConverter.convert(dataFile(), dataFile(), StorageFormat.BINARY));
+        assertEquals(0, Files.readAllBytes(file)[0]);
+
+        String textCopy = tempDir.resolve("copy.txt").toString();
+        StorageConverter.convert(dataFile(), textCopy, StorageFormat.TEXT);
+        assertEquals(lines, Files.readAllLines(Path.of(textCopy)));
+    }
+
+    @Test
+    public void convert_missingSource_failsWithoutCreatingFiles() {
+        String target = tempDir.resolve("copy.txt").toString();
+        assertThrows(NoSuchFileException.class,
+                () -> StorageConverter.convert(dataFile(), target, StorageFormat.BINARY));
+        assertTrue(Files.notExists(Path.of(dataFile())));
+        assertTrue(Files.notExists(Path.of(dataFile() + ".journal")));
+        assertTrue(Files.notExists(Path.of(target)));
+    }
+
+    @Test
+    public void convert_sourceWithJournal_leavesSourceUnchanged() throws Exception {
+        Storage storage = new Storage(dataFile());
+        TaskList tasks = storage.load();
+        Task a = new Todo("a");
+        tasks.add(a);
+        storage.appendAdd(a, tasks);
+        Path journal = Path.of(dataFile() + ".journal");
+        String before = Files.readString(journal);
+
+        String target = tempDir.resolve("copy.bin").toString();
+        assertEquals(1, StorageConverter.convert(dataFile(), target, StorageFormat.BINARY));
+        assertEquals(before, Files.readString(journal));
+        assertEquals("[T][ ] a", new Storage(target).load().get(0).toString());
+    }
+
+    @Test
+    public void groupCommit_batchesRecordsUntilFlush() throws Exception {
+        Storage storage = new Storage(dataFile(), StorageFormat.TEXT, Storage.DEFAULT_COMPACT_THRESHOLD,
+                CommitPolicy.groupCommit(60_000, 1_000));
+        TaskList tasks = storage.load();
+        for (String name : new String[] {"a", "b", "c"}) {
+            Task t = new Todo(name);
+            tasks.add(t);
+            storage.appendAdd(t, tasks);
+        }
+        assertEquals(0, new Storage(dataFile()).load().size());
+
+        storage.flush(tasks);
+        assertEquals(3, new Storage(dataFile()).load().size());
+        storage.close();
+    }
+
+    @Test
+    public void groupCommit_failedWrite_savesSnapshotOnNextChange() throws Exception {
+        Storage storage = new Storage(dataFile(), StorageFormat.TEXT, Storage.DEFAULT_COMPACT_THRESHOLD,
+                CommitPolicy.groupCommit(60_000, 1_000));
+        TaskList tasks = storage.load();
+        Task a = new Todo("a");
+        tasks.add(a);
+        storage.appendAdd(a, tasks);
+        storage.flush(tasks);
+
+        // A directory in place of the journal makes the next batch fail to write.
+        Path journal = Path.of(dataFile() + ".journal");
+        Files.delete(journal);
+        Files.createDirectory(journal);
+        Task b = new Todo("b");
+        tasks.add(b);
+        storage.appendAdd(b, tasks);
+        assertThrows(IOException.class, () -> storage.flush(tasks));
+
+        Files.delete(journal);
+        Task c = new Todo("c");
+        tasks.add(c);
+        storage.appendAdd(c, tasks);
+        storage.close();
+
+        TaskList loaded = new Storage(dataFile()).load();
+        assertEquals(3, loaded.size());
+        assertEquals("[T][ ] b", loaded.get(1).toString());
+    }
+
+    @Test
+    public void counters_trackSnapshotsAndBytesWritten() throws Exception {
+        Storage storage = new Storage(dataFile(), 2);
+        TaskList tasks = storage.load();
+        long afterLoad = storage.getBytesWritten();
+        Path journal = Path.of(dataFile() + ".journal");
+        assertEquals(Files.size(journal), afterLoad);
+
+        Task a = new Todo("a");
+        tasks.add(a);
+        storage.appendAdd(a, tasks);
+        assertEquals(0, storage.getSnapshotCount());
+        assertEquals(Files.size(journal), storage.getBytesWritten());
+
+        Task b = new Todo("b");
+        tasks.add(b);
+        storage.appendAdd(b, tasks);
+        assertEquals(1, storage.getSnapshotCount());
+        assertTrue(storage.getBytesWritten() > afterLoad + Files.size(Path.of(dataFile())));
+    }
+
+    @Test
+    public void loadAndSave_duringRecording_emitEvents() throws Exception {
+        Path dump = tempDir.resolve("storage.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("sillyrat.Load");
+            recording.enable("sillyrat.Save");
+            recording.start();
+            Storage storage = new Storage(dataFile());
+            TaskList tasks = storage.load();
+            tasks.add(new Todo("a"));
+            tasks.add(new Todo("b"));
+            storage.save(tasks);
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        RecordedEvent load = events.stream()
+                .filter(e -> e.getEventType().getName().equals("sillyrat.Load")).findFirst().orElseThrow();
+        RecordedEvent save = events.stream()
+                .filter(e -> e.getEventType().getName().equals("sillyrat.Save")).findFirst().orElseThrow();
+        assertEquals(0, load.getInt("taskCount"));
+        assertEquals("text", load.getString("format"));
+        assertEquals(2, save.getInt("taskCount"));
+        assertEquals(Files.size(Path.of(dataFile())), save.getLong("bytesWritten"));
+    }
+}
@@ -49,4 +49,24 @@ public class LoadTaskTest {
         assertEquals("[ ][ ] something", t.toString());
         assertEquals(" \t0\tsomething", t.toSaveString());
     }
+
+    @Test
+    public void toLoadTask_trailingId_isRestoredAndSaved() {
+        Task t = Task.toLoadTask("D\t0\tsubmit report\t2019-10-15T18:00:00\t#7");
+        assertEquals(7, t.getId());
+        assertEquals("D\t0\tsubmit report\t2019-10-15T18:00:00\t#7", t.toSaveString());
+        assertEquals(Task.NO_ID, Task.toLoadTask("T\t0\t#hashtag").getId());
+    }
+
+    @Test
+    public void toString_isReusedUntilDoneStatusChanges() {
+        Task t = Task.toLoadTask("E\t0\tmeeting\t2019-10-15T14:00:00\t2019-10-15T16:00:00");
+        String first = t.toString();
+        assertSame(first, t.toString());
+
+        t.markDone();
+        assertEquals(first.replace("[E][ ]", "[E][X]"), t.toString());
+        t.unmarkDone();
+        assertEquals(first, t.toString());
+    }
 }
\ No newline at end of file
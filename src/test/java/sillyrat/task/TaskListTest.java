@@ -0,0 +1,301 @@
+package sillyrat.task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class TaskListTest {
+
+    private static TaskList listOf(String... descriptions) {
+        TaskList tasks = new TaskList();
+        for (String description : descriptions) {
+            tasks.add(new Todo(description));
+        }
+        return tasks;
+    }
+
+    private static List<String> descriptions(List<Task> tasks) {
+        return tasks.stream().map(Task::getDescription).toList();
+    }
+
+    @Test
+    public void find_multipleWords_requiresAllWords() {
+        TaskList tasks = listOf("read book", "return book", "read news");
+        assertEquals(List.of("read book"), descriptions(tasks.find("book read")));
+    }
+
+    @Test
+    public void find_orAndNot_combineClauses() {
+        TaskList tasks = listOf("read book", "return book", "buy milk", "buy cheese");
+        assertEquals(List.of("read book", "buy milk"), descriptions(tasks.find("read OR milk")));
+        assertEquals(List.of("return book"), descriptions(tasks.find("book -read")));
+        assertEquals(List.of("buy cheese"), descriptions(tasks.find("buy NOT milk")));
+    }
+
+    @Test
+    public void find_prefix_matchesLongerWords() {
+        TaskList tasks = listOf("read book", "bookmark page", "buy milk");
+        assertEquals(List.of("read book", "bookmark page"), descriptions(tasks.find("boo")));
+    }
+
+    @Test
+    public void find_afterRemove_skipsRemovedTask() {
+        TaskList tasks = listOf("read book", "return book", "buy milk");
+        tasks.remove(0);
+        assertEquals(List.of("return book"), descriptions(tasks.find("book")));
+        assertTrue(tasks.find("read").isEmpty());
+    }
+
+    @Test
+    public void page_returnsSliceWithTotal_acrossRemovals() {
+        TaskList tasks = listOf("a", "b", "c", "d", "e");
+        tasks.remove(1);
+
+        TaskPage page = tasks.page(1, 2);
+        assertEquals(List.of("c", "d"), descriptions(page.getTasks()));
+        assertEquals(1, page.getOffset());
+        assertEquals(4, page.getTotal());
+        assertEquals(List.of("e"), descriptions(tasks.page(3, 2).getTasks()));
+        assertTrue(tasks.page(4, 2).getTasks().isEmpty());
+    }
+
+    @Test
+    public void findPage_returnsSliceOfMatches() {
+        TaskList tasks = listOf("read book", "buy milk", "return book", "book club");
+
+        TaskPage page = tasks.find("book", 1, 5);
+        assertEquals(List.of("return book", "book club"), descriptions(page.getTasks()));
+        assertEquals(3, page.getTotal());
+        assertTrue(tasks.find("book", 7, 5).getTasks().isEmpty());
+    }
+
+    @Test
+    public void getUpcoming_returnsUndoneTimedTasksInRange_earliestFirst() {
+        LocalDateTime now = LocalDateTime.now();
+        TaskList tasks = new TaskList();
+        tasks.add(new Deadline("later", now.plusDays(3)));
+        tasks.add(new Todo("no date"));
+        tasks.add(new Event("sooner", now.plusDays(1), now.plusDays(2)));
+        tasks.add(new Deadline("too far", now.plusDays(30)));
+        tasks.add(new Deadline("overdue", now.minusDays(1)));
+
+        assertEquals(List.of("sooner", "later"), descriptions(tasks.getUpcoming(7)));
+    }
+
+    @Test
+    public void getUpcoming_afterMarkAndUnmark_tracksDoneState() {
+        TaskList tasks = new TaskList();
+        tasks.add(new Deadline("report", LocalDateTime.now().plusDays(1)));
+
+        tasks.markDone(0);
+        assertTrue(tasks.getUpcoming(7).isEmpty());
+
+        tasks.unmarkDone(0);
+        assertEquals(List.of("report"), descriptions(tasks.getUpcoming(7)));
+
+        tasks.remove(0);
+        assertTrue(tasks.getUpcoming(7).isEmpty());
+    }
+
+    @Test
+    public void getConflicts_reportsEachOverlappingPairOnce() {
+        LocalDateTime day = LocalDateTime.of(2030, 5, 5, 0, 0);
+        TaskList tasks = new TaskList();
+        Event morning = new Event("morning", day.withHour(9), day.withHour(12));
+        Event brunch = new Event("brunch", day.withHour(11), day.withHour(13));
+        Event lunch = new Event("lunch", day.withHour(12), day.withHour(13));
+        Event evening = new Event("evening", day.withHour(18), day.withHour(20));
+        tasks.add(morning);
+        tasks.add(lunch);
+        tasks.add(evening);
+        tasks.add(brunch);
+
+        Map<Event, List<Event>> conflicts = tasks.getConflicts();
+        assertEquals(List.of(brunch), conflicts.get(morning));
+        assertEquals(List.of(lunch), conflicts.get(brunch));
+        assertEquals(2, conflicts.size());
+
+        assertEquals(List.of(morning, lunch), tasks.getClashes(brunch));
+        assertTrue(tasks.getClashes(evening).isEmpty());
+    }
+
+    @Test
+    public void getClashes_skipsDoneAndRemovedEvents() {
+        LocalDateTime day = LocalDateTime.of(2030, 5, 5, 0, 0);
+        TaskList tasks = new TaskList();
+        Event first = new Event("first", day.withHour(9), day.withHour(12));
+        Event second = new Event("second", day.withHour(10), day.withHour(11));
+        Event third = new Event("third", day.withHour(11), day.withHour(14));
+        tasks.add(first);
+        tasks.add(second);
+        tasks.add(third);
+
+        tasks.markDone(1);
+        assertEquals(List.of(third), tasks.getClashes(first));
+
+        tasks.remove(2);
+        assertTrue(tasks.getClashes(first).isEmpty());
+        assertTrue(tasks.getConflicts().isEmpty());
+    }
+
+    @Test
+    public void add_assignsIdsThatSurviveRemoval() {
+        TaskList tasks = listOf("a", "b", "c");
+        long idOfC = tasks.get(2).getId();
+        tasks.remove(0);
+
+        assertEquals(1, tasks.indexOfId(idOfC));
+        assertEquals(-1, tasks.indexOfId(tasks.size() + 100));
+        tasks.add(new Todo("d"));
+        assertEquals(idOfC + 1, tasks.get(2).getId());
+    }
+
+    @Test
+    public void constructor_keepsSavedIdsAndReplacesDuplicates() {
+        Task first = Task.toLoadTask("T\t0\ta\t#5");
+        Task duplicate = Task.toLoadTask("T\t0\tb\t#5");
+        Task unnumbered = Task.toLoadTask("T\t0\tc");
+        TaskList tasks = new TaskList(List.of(first, duplicate, unnumbered));
+
+        assertEquals(5, first.getId());
+        assertEquals(6, duplicate.getId());
+        assertEquals(7, unnumbered.getId());
+        assertEquals(1, tasks.indexOfId(6));
+    }
+
+    @Test
+    public void positionalOperations_matchArrayListAcrossManyRemovals() {
+        TaskList tasks = new TaskList();
+        List<Task> expected = new ArrayList<>();
+        Random random = new Random(42);
+        for (int round = 0; round < 2_000; round++) {
+            if (expected.isEmpty() || random.nextInt(3) > 0) {
+                Task task = new Todo("task " + round);
+                tasks.add(task);
+                expected.add(task);
+            } else {
+                int index = random.nextInt(expected.size());
+                assertSame(expected.remove(index), tasks.remove(index));
+            }
+        }
+
+        assertEquals(expected, tasks.asList());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), tasks.get(i));
+            assertEquals(i, tasks.indexOfId(expected.get(i).getId()));
+        }
+    }
+
+    @Test
+    public void find_afterManyRemovalsAndUndos_matchesList() {
+        TaskList tasks = new TaskList();
+        tasks.setHistoryDepth(3_000);
+        for (int i = 0; i < 2_000; i++) {
+            tasks.add(new Todo("job " + i));
+        }
+        for (int i = 0; i < 1_500; i++) {
+            tasks.remove(tasks.size() / 2);
+            if (i % 100 == 0) {
+                assertEquals(tasks.asList(), tasks.find("job"));
+            }
+        }
+        for (int i = 0; i < 700; i++) {
+            tasks.undo();
+        }
+
+        assertEquals(1_200, tasks.size());
+        assertEquals(tasks.asList(), tasks.find("job"));
+        assertTrue(tasks.find(tasks.get(600).getDescription()).contains(tasks.get(600)));
+        assertEquals(tasks.asList().subList(10, 20), tasks.find("job", 10, 10).getTasks());
+    }
+
+    @Test
+    public void undoRedo_restoresOrderAndIndexes() {
+        TaskList tasks = new TaskList();
+        tasks.setHistoryDepth(10);
+        LocalDateTime soon = LocalDateTime.now().plusDays(1);
+        tasks.add(new Todo("read book"));
+        tasks.add(new Deadline("return book", soon));
+        tasks.add(new Todo("buy milk"));
+        tasks.markDone(1);
+        Task removed = tasks.remove(1);
+
+        assertEquals(TaskChange.Kind.DELETE, tasks.undo().getKind());
+        assertEquals(List.of("read book", "return book", "buy milk"), descriptions(tasks.asList()));
+        assertEquals(1, tasks.indexOfId(removed.getId()));
+        assertEquals(List.of("read book", "return book"), descriptions(tasks.find("book")));
+        assertTrue(tasks.getUpcoming(7).isEmpty());
+
+        assertEquals(TaskChange.Kind.MARK, tasks.undo().getKind());
+        assertFalse(removed.isDone());
+        assertEquals(List.of(removed), tasks.getUpcoming(7));
+
+        assertEquals(TaskChange.Kind.MARK, tasks.redo().getKind());
+        assertEquals(TaskChange.Kind.DELETE, tasks.redo().getKind());
+        assertNull(tasks.redo());
+        assertEquals(List.of("read book", "buy milk"), descriptions(tasks.asList()));
+        assertEquals(List.of("read book"), descriptions(tasks.find("book")));
+        assertEquals(-1, tasks.indexOfId(removed.getId()));
+    }
+
+    @Test
+    public void undo_limitedByDepth_andNewChangeDropsRedo() {
+        TaskList tasks = listOf("before history");
+        tasks.setHistoryDepth(2);
+        tasks.add(new Todo("a"));
+        tasks.add(new Todo("b"));
+        tasks.add(new Todo("c"));
+
+        assertNotNull(tasks.undo());
+        assertNotNull(tasks.undo());
+        assertNull(tasks.undo());
+        assertEquals(List.of("before history", "a"), descriptions(tasks.asList()));
+
+        tasks.add(new Todo("d"));
+        assertNull(tasks.redo());
+        assertEquals(TaskChange.Kind.ADD, tasks.undo().getKind());
+        assertEquals(List.of("before history", "a"), descriptions(tasks.asList()));
+    }
+
+    @Test
+    public void undoRedo_matchSnapshotsAcrossRandomChanges() {
+        TaskList tasks = new TaskList();
+        tasks.setHistoryDepth(Integer.MAX_VALUE);
+        List<List<Task>> versions = new ArrayList<>();
+        versions.add(List.of());
+        int current = 0;
+        Random random = new Random(7);
+        for (int round = 0; round < 3_000; round++) {
+            int choice = random.nextInt(6);
+            if (choice == 0 && current > 0) {
+                tasks.undo();
+                current--;
+            } else if (choice == 1 && current < versions.size() - 1) {
+                tasks.redo();
+                current++;
+            } else {
+                if (tasks.isEmpty() || choice < 4) {
+                    tasks.add(new Todo("task " + round));
+                } else {
+                    tasks.remove(random.nextInt(tasks.size()));
+                }
+                versions.subList(current + 1, versions.size()).clear();
+                versions.add(tasks.asList());
+                current++;
+            }
+            assertEquals(versions.get(current), tasks.asList());
+        }
+
+        List<Task> expected = versions.get(current);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(i, tasks.indexOfId(expected.get(i).getId()));
+        }
+        assertEquals(expected, tasks.find("task"));
+    }
+}
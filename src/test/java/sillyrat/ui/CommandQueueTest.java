@@ -0,0 +1,76 @@
+package sillyrat.ui;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import sillyrat.SillyRat;
+
+public class CommandQueueTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void submit_runsCommandsInOrder_offCallerThread() throws Exception {
+        int count = 200;
+        List<String> replies = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(count);
+
+        try (SillyRat bot = new SillyRat(tempDir.resolve("silly-rat.txt").toString());
+                CommandQueue queue = new CommandQueue(bot, Runnable::run)) {
+            for (int i = 1; i <= count; i++) {
+                queue.submit("todo task " + i, reply -> {
+                    replies.add(reply);
+                    threads.add(Thread.currentThread());
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        }
+
+        for (int i = 1; i <= count; i++) {
+            assertTrue(replies.get(i - 1).contains("Now you have " + i + " tasks"));
+        }
+        assertFalse(threads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void submit_commandThrows_stillDeliversReply() throws Exception {
+        SillyRat bot = new SillyRat(tempDir.resolve("silly-rat.txt").toString()) {
+            @Override
+            public String getResponse(String input) {
+                if (input.equals("boom")) {
+                    throw new IllegalStateException("boom");
+                }
+                return super.getResponse(input);
+            }
+        };
+        List<String> replies = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(2);
+
+        try (bot; CommandQueue queue = new CommandQueue(bot, Runnable::run)) {
+            queue.submit("boom", reply -> {
+                replies.add(reply);
+                done.countDown();
+            });
+            queue.submit("list", reply -> {
+                replies.add(reply);
+                done.countDown();
+            });
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        }
+
+        assertEquals(CommandQueue.ERROR_REPLY, replies.get(0));
+        assertTrue(replies.get(1).startsWith("Nothing on the list"));
+    }
+}
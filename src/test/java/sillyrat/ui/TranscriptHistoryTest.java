@@ -0,0 +1,56 @@
+package sillyrat.ui;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TranscriptHistoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void read_returnsRangeInOrder_withSenders() throws Exception {
+        try (TranscriptHistory history = new TranscriptHistory(tempDir.resolve("transcript.bin"))) {
+            for (int i = 0; i < 100; i++) {
+                history.append(new ChatMessage("message " + i + " — ✓", i % 2 == 0));
+            }
+            assertEquals(100, history.size());
+
+            List<ChatMessage> range = history.read(40, 43);
+            assertEquals(3, range.size());
+            assertEquals("message 40 — ✓", range.get(0).getText());
+            assertTrue(range.get(0).isFromUser());
+            assertFalse(range.get(1).isFromUser());
+            assertEquals("message 42 — ✓", range.get(2).getText());
+            assertTrue(history.read(7, 7).isEmpty());
+        }
+    }
+
+    @Test
+    public void read_keepsEmptyAndMultiLineMessages() throws Exception {
+        try (TranscriptHistory history = new TranscriptHistory(tempDir.resolve("transcript.bin"))) {
+            history.append(new ChatMessage("", true));
+            history.append(new ChatMessage("line one\nline two", false));
+
+            List<ChatMessage> all = history.read(0, 2);
+            assertEquals("", all.get(0).getText());
+            assertEquals("line one\nline two", all.get(1).getText());
+        }
+    }
+
+    @Test
+    public void close_deletesFile() throws Exception {
+        Path file = tempDir.resolve("transcript.bin");
+        TranscriptHistory history = new TranscriptHistory(file);
+        history.append(new ChatMessage("hi", true));
+        assertTrue(Files.exists(file));
+        history.close();
+        assertFalse(Files.exists(file));
+    }
+}
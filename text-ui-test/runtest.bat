@@ -3,11 +3,12 @@
 REM create bin directory if it doesn't exist
 if not exist ..\bin mkdir ..\bin
 
-REM delete output from previous run
+REM delete output and saved tasks from previous run
 if exist ACTUAL.TXT del ACTUAL.TXT
+if exist data rmdir /s /q data
 
-REM compile the code into the bin folder
-javac  -cp ..\src\main\java -Xlint:none -d ..\bin ..\src\main\java\*.java
+REM compile the text interface and the classes it uses into the bin folder
+javac -encoding UTF-8 -sourcepath ..\src\main\java -Xlint:none -d ..\bin ..\src\main\java\sillyrat\Cli.java
 IF ERRORLEVEL 1 (
     echo ********** BUILD FAILURE **********
     exit /b 1
@@ -15,7 +16,13 @@ IF ERRORLEVEL 1 (
 REM no error here, errorlevel == 0
 
 REM run the program, feed commands from input.txt file and redirect the output to the ACTUAL.TXT
-java -classpath ..\bin SillyRat < input.txt > ACTUAL.TXT
+java -classpath ..\bin sillyrat.Cli data\silly-rat.txt < input.txt > ACTUAL.TXT
 
 REM compare the output to the expected output
 FC ACTUAL.TXT EXPECTED.TXT
+IF ERRORLEVEL 1 exit /b 1
+
+REM run the same commands in batch mode on fresh data, which must give the same output
+rmdir /s /q data
+java -classpath ..\bin sillyrat.Cli --batch --script input.txt data\silly-rat.txt > ACTUAL.TXT
+FC ACTUAL.TXT EXPECTED.TXT
@@ -6,27 +6,40 @@ then
     mkdir ../bin
 fi
 
-# delete output from previous run
+# delete output and saved tasks from previous run
 if [ -e "./ACTUAL.TXT" ]
 then
     rm ACTUAL.TXT
 fi
+rm -rf ./data
 
-# compile the code into the bin folder, terminates if error occurred
-if ! javac -cp ../src/main/java -Xlint:none -d ../bin ../src/main/java/*.java
+# compile the text interface and the classes it uses into the bin folder, terminates if error occurred
+if ! javac -encoding UTF-8 -sourcepath ../src/main/java -Xlint:none -d ../bin ../src/main/java/sillyrat/Cli.java
 then
     echo "********** BUILD FAILURE **********"
     exit 1
 fi
 
 # run the program, feed commands from input.txt file and redirect the output to the ACTUAL.TXT
-java -classpath ../bin Duke < input.txt > ACTUAL.TXT
+java -classpath ../bin sillyrat.Cli data/silly-rat.txt < input.txt > ACTUAL.TXT
 
 # convert to UNIX format
 cp EXPECTED.TXT EXPECTED-UNIX.TXT
 dos2unix ACTUAL.TXT EXPECTED-UNIX.TXT
 
 # compare the output to the expected output
+diff ACTUAL.TXT EXPECTED-UNIX.TXT
+if [ $? -ne 0 ]
+then
+    echo "Test result: FAILED"
+    exit 1
+fi
+
+# run the same commands in batch mode on fresh data, which must give the same output
+rm -rf ./data
+java -classpath ../bin sillyrat.Cli --batch --script input.txt data/silly-rat.txt > ACTUAL.TXT
+dos2unix ACTUAL.TXT
+
 diff ACTUAL.TXT EXPECTED-UNIX.TXT
 if [ $? -eq 0 ]
 then